@@ -0,0 +1,161 @@
+package com.example.api.archive;
+
+import com.example.api.model.TaskNoSQL;
+import com.example.api.repository.TaskRepositoryNoSQL;
+import com.example.api.search.TaskSuggestIndex;
+import com.example.api.tenant.TenantContext;
+import com.example.api.tenant.TenantRegistry;
+import com.google.api.gax.rpc.ApiException;
+import com.google.api.gax.rpc.StatusCode;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.FirestoreException;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Moves tasks in a terminal status that have not been touched for {@code min-age} from each
+ * tenant's {@code tasks} collection into its {@code tasks_archive} collection, so full scans and
+ * status queries only read the working set. Archived tasks are read-only and are returned by the
+ * read endpoints with {@code includeArchived=true}.
+ *
+ * <p>Each batch is one transaction, and batches are spaced by {@code batch-delay} with at most
+ * {@code max-per-run} tasks per tenant and run, so a large backlog is worked off gradually
+ * instead of competing with request traffic.
+ *
+ * <p>The archive query needs the {@code status, firestoreUpdatedAt} composite index. Terraform
+ * only creates it for the default tenant's {@code tasks}; tenants whose collection lacks it are
+ * skipped (and counted in {@code tasks.archive.skipped}) until the index is added.
+ */
+@Component
+@ConditionalOnProperty(prefix = "app.tasks.archive", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TaskArchiver {
+    
+    private static final Logger log = LoggerFactory.getLogger(TaskArchiver.class);
+    
+    private static final Set<TaskNoSQL.TaskStatus> TERMINAL = EnumSet.of(TaskNoSQL.TaskStatus.COMPLETED, TaskNoSQL.TaskStatus.CANCELLED);
+    
+    @Autowired
+    private TaskRepositoryNoSQL taskRepository;
+    
+    @Autowired
+    private TenantRegistry tenantRegistry;
+    
+    @Autowired
+    private TaskSuggestIndex suggestIndex;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${app.tasks.archive.statuses:COMPLETED,CANCELLED}")
+    private List<TaskNoSQL.TaskStatus> statuses;
+    
+    @Value("${app.tasks.archive.min-age:30d}")
+    private Duration minAge;
+    
+    @Value("${app.tasks.archive.batch-size:200}")
+    private int batchSize;
+    
+    @Value("${app.tasks.archive.batch-delay:500ms}")
+    private Duration batchDelay;
+    
+    @Value("${app.tasks.archive.max-per-run:10000}")
+    private int maxPerRun;
+    
+    // Tenants already reported as missing the index, so the hourly run does not repeat the warning
+    private final Set<String> missingIndex = ConcurrentHashMap.newKeySet();
+    
+    @PostConstruct
+    void validate() {
+        if (statuses.isEmpty() || !TERMINAL.containsAll(statuses)) {
+            throw new IllegalStateException("app.tasks.archive.statuses must be a subset of " + TERMINAL + ", was " + statuses);
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${app.tasks.archive.interval:PT1H}", initialDelayString = "${app.tasks.archive.initial-delay:PT10M}")
+    public void archiveAll() {
+        for (String tenant : tenantRegistry.refresh()) {
+            try (TenantContext.Scope scope = TenantContext.open(tenant)) {
+                archive();
+                missingIndex.remove(tenant);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                if (!isMissingIndex(e)) {
+                    log.warn("Archiving tasks for tenant {} failed: {}", tenant, e.getMessage());
+                    continue;
+                }
+                meterRegistry.counter("tasks.archive.skipped", "tenant", tenant, "reason", "missing-index").increment();
+                if (missingIndex.add(tenant)) {
+                    log.warn("Not archiving tenant {}: {} has no (status, firestoreUpdatedAt) index",
+                            tenant, TenantContext.collectionName(tenant, "tasks"));
+                }
+            }
+        }
+    }
+    
+    /**
+     * Archives the current tenant's eligible tasks, up to {@code max-per-run}.
+     *
+     * @return the number of tasks moved
+     */
+    public int archive() throws ExecutionException, InterruptedException {
+        String tenant = TenantContext.current();
+        long started = System.nanoTime();
+        Timestamp cutoff = Timestamp.ofTimeSecondsAndNanos(Timestamp.now().getSeconds() - minAge.getSeconds(), 0);
+        int archived = 0;
+        
+        while (archived < maxPerRun) {
+            List<TaskNoSQL> moved = taskRepository.archive(statuses, cutoff, Math.min(batchSize, maxPerRun - archived));
+            moved.forEach(task -> suggestIndex.remove(task.getId()));
+            archived += moved.size();
+            meterRegistry.counter("tasks.archive.moved", "tenant", tenant).increment(moved.size());
+            if (moved.size() < batchSize) {
+                break;
+            }
+            TimeUnit.NANOSECONDS.sleep(batchDelay.toNanos());
+        }
+        
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        meterRegistry.timer("tasks.archive.run", "tenant", tenant).record(Duration.ofMillis(elapsedMs));
+        if (archived > 0) {
+            log.info("Archived {} tasks for tenant {} last updated before {} in {} ms", archived, tenant, cutoff, elapsedMs);
+        }
+        return archived;
+    }
+    
+    /**
+     * Firestore answers a query without its composite index with FAILED_PRECONDITION.
+     */
+    private static boolean isMissingIndex(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof FirestoreException firestoreException && firestoreException.getStatus() != null) {
+                return firestoreException.getStatus().getCode() == Status.Code.FAILED_PRECONDITION;
+            }
+            if (t instanceof ApiException apiException) {
+                return apiException.getStatusCode().getCode() == StatusCode.Code.FAILED_PRECONDITION;
+            }
+            if (t instanceof StatusRuntimeException statusException) {
+                return statusException.getStatus().getCode() == Status.Code.FAILED_PRECONDITION;
+            }
+        }
+        return false;
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.api.config;
 
+import com.example.api.diagnostics.TaskConversionEvent;
 import com.example.api.model.TaskNoSQL;
 import com.google.cloud.Timestamp;
 import com.google.cloud.firestore.DocumentSnapshot;
@@ -15,11 +16,24 @@ public class TaskConverter {
             return null;
         }
 
+        TaskConversionEvent event = TaskConversionEvent.start(document.getId());
+        try {
+            Map<String, Object> data = document.getData();
+            event.setFields(data.size());
+            return convertFromMap(document.getId(), data);
+        } finally {
+            event.commit();
+        }
+    }
+    
+    /**
+     * Converts raw document fields, as returned by {@code DocumentSnapshot.getData()}.
+     */
+    public TaskNoSQL convertFromMap(String id, Map<String, Object> data) {
         TaskNoSQL task = new TaskNoSQL();
-        Map<String, Object> data = document.getData();
         
         // Basic fields
-        task.setId(document.getId());
+        task.setId(id);
         task.setTitle((String) data.get("title"));
         task.setDescription((String) data.get("description"));
         task.setAssignee((String) data.get("assignee"));
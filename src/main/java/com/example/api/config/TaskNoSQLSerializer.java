@@ -0,0 +1,132 @@
+package com.example.api.config;
+
+import com.example.api.model.TaskNoSQL;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.google.cloud.Timestamp;
+import org.springframework.boot.jackson.JsonComponent;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes TaskNoSQL straight to the generator instead of going through bean introspection.
+ * The output matches the annotated getters: same property order, nulls included, and
+ * timestamps formatted as {@code yyyy-MM-dd'T'HH:mm:ss} in UTC. Only the Firestore
+ * timestamps are read; the legacy Object fields are never set by TaskConverter.
+ */
+@JsonComponent
+public class TaskNoSQLSerializer extends StdSerializer<TaskNoSQL> {
+    
+    private static final SerializableString ID = new SerializedString("id");
+    private static final SerializableString TITLE = new SerializedString("title");
+    private static final SerializableString DESCRIPTION = new SerializedString("description");
+    private static final SerializableString STATUS = new SerializedString("status");
+    private static final SerializableString CREATED_AT = new SerializedString("createdAt");
+    private static final SerializableString UPDATED_AT = new SerializedString("updatedAt");
+    private static final SerializableString DUE_DATE = new SerializedString("dueDate");
+    private static final SerializableString ASSIGNEE = new SerializedString("assignee");
+    
+    private static final SerializableString[] STATUS_VALUES = new SerializableString[TaskNoSQL.TaskStatus.values().length];
+    
+    static {
+        for (TaskNoSQL.TaskStatus status : TaskNoSQL.TaskStatus.values()) {
+            STATUS_VALUES[status.ordinal()] = new SerializedString(status.name());
+        }
+    }
+    
+    private static final DateTimeFormatter FALLBACK_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss");
+    
+    // Direct-mapped cache of formatted seconds; tasks written in the same second share an entry
+    private static final int CACHE_SIZE = 4096;
+    private static final FormattedSecond[] CACHE = new FormattedSecond[CACHE_SIZE];
+    
+    public TaskNoSQLSerializer() {
+        super(TaskNoSQL.class);
+    }
+    
+    @Override
+    public void serialize(TaskNoSQL task, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(task);
+        
+        gen.writeFieldName(ID);
+        gen.writeString(task.getId());
+        gen.writeFieldName(TITLE);
+        gen.writeString(task.getTitle());
+        gen.writeFieldName(DESCRIPTION);
+        gen.writeString(task.getDescription());
+        gen.writeFieldName(STATUS);
+        if (task.getStatus() != null) {
+            gen.writeString(STATUS_VALUES[task.getStatus().ordinal()]);
+        } else {
+            gen.writeNull();
+        }
+        gen.writeFieldName(CREATED_AT);
+        writeTimestamp(task.getFirestoreCreatedAt(), gen);
+        gen.writeFieldName(UPDATED_AT);
+        writeTimestamp(task.getFirestoreUpdatedAt(), gen);
+        gen.writeFieldName(DUE_DATE);
+        writeTimestamp(task.getFirestoreDueDate(), gen);
+        gen.writeFieldName(ASSIGNEE);
+        gen.writeString(task.getAssignee());
+        
+        gen.writeEndObject();
+    }
+    
+    private static void writeTimestamp(Timestamp timestamp, JsonGenerator gen) throws IOException {
+        if (timestamp == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeString(format(timestamp.getSeconds()));
+    }
+    
+    static SerializableString format(long epochSecond) {
+        int slot = (int) (epochSecond & (CACHE_SIZE - 1));
+        FormattedSecond cached = CACHE[slot];
+        if (cached != null && cached.epochSecond == epochSecond) {
+            return cached.value;
+        }
+        
+        SerializableString value = new SerializedString(formatUncached(epochSecond));
+        CACHE[slot] = new FormattedSecond(epochSecond, value);
+        return value;
+    }
+    
+    private static String formatUncached(long epochSecond) {
+        LocalDateTime dateTime = LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+        int year = dateTime.getYear();
+        if (year < 0 || year > 9999) {
+            return FALLBACK_FORMAT.format(dateTime);
+        }
+        
+        char[] chars = new char[19];
+        writeDigits(chars, 0, year, 4);
+        chars[4] = '-';
+        writeDigits(chars, 5, dateTime.getMonthValue(), 2);
+        chars[7] = '-';
+        writeDigits(chars, 8, dateTime.getDayOfMonth(), 2);
+        chars[10] = 'T';
+        writeDigits(chars, 11, dateTime.getHour(), 2);
+        chars[13] = ':';
+        writeDigits(chars, 14, dateTime.getMinute(), 2);
+        chars[16] = ':';
+        writeDigits(chars, 17, dateTime.getSecond(), 2);
+        return new String(chars);
+    }
+    
+    private static void writeDigits(char[] chars, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+    
+    private record FormattedSecond(long epochSecond, SerializableString value) {
+    }
+}
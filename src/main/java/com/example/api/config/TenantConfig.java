@@ -0,0 +1,39 @@
+package com.example.api.config;
+
+import com.example.api.tenant.TenantInterceptor;
+import com.example.api.tenant.TenantRegistry;
+import io.micrometer.common.KeyValues;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class TenantConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private TenantRegistry tenantRegistry;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new TenantInterceptor(tenantRegistry)).addPathPatterns("/api/**");
+    }
+
+    /**
+     * Tags {@code http.server.requests} with the tenant so latency and error rates can be split per tenant.
+     */
+    @Bean
+    public ServerRequestObservationConvention tenantServerRequestObservationConvention() {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+                return super.getLowCardinalityKeyValues(context)
+                        .and("tenant", TenantInterceptor.tenantOf(context.getCarrier()));
+            }
+        };
+    }
+}
@@ -1,5 +1,8 @@
 package com.example.api.controller;
 
+import com.example.api.warmup.StartupWarmup;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -11,6 +14,9 @@ import java.util.Map;
 @RestController
 public class HealthController {
     
+    @Autowired
+    private StartupWarmup startupWarmup;
+    
     @GetMapping("/health")
     public ResponseEntity<Map<String, Object>> health() {
         Map<String, Object> response = new HashMap<>();
@@ -21,12 +27,39 @@ public class HealthController {
         return ResponseEntity.ok(response);
     }
     
+    /**
+     * Liveness: the process is up and serving requests. Does not depend on warm-up or Firestore.
+     */
+    @GetMapping("/live")
+    public ResponseEntity<Map<String, Object>> live() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("status", "UP");
+        response.put("timestamp", LocalDateTime.now());
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * Readiness: 503 until the startup warm-up has finished, then 200.
+     */
+    @GetMapping("/ready")
+    public ResponseEntity<Map<String, Object>> ready() {
+        Map<String, Object> response = new HashMap<>();
+        boolean ready = startupWarmup.isDone();
+        response.put("status", ready ? "UP" : "WARMING_UP");
+        response.put("phase", startupWarmup.getPhase());
+        response.put("steps", startupWarmup.getSteps());
+        response.put("timestamp", LocalDateTime.now());
+        return ResponseEntity.status(ready ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE).body(response);
+    }
+    
     @GetMapping("/")
     public ResponseEntity<Map<String, String>> root() {
         Map<String, String> response = new HashMap<>();
         response.put("message", "Welcome to SpringBoot GCP API");
         response.put("documentation", "/swagger-ui.html");
         response.put("health", "/health");
+        response.put("readiness", "/ready");
+        response.put("liveness", "/live");
         response.put("api", "/api/tasks");
         return ResponseEntity.ok(response);
     }
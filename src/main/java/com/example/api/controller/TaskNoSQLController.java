@@ -1,29 +1,70 @@
 package com.example.api.controller;
 
+import com.example.api.model.TaskList;
 import com.example.api.model.TaskNoSQL;
+import com.example.api.model.TaskSuggestion;
+import com.example.api.service.TaskBulkService;
+import com.example.api.service.SyncTokenExpiredException;
 import com.example.api.service.TaskNoSQLService;
+import com.example.api.service.TaskSyncService;
+import com.example.api.tenant.TenantContext;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
 
 @RestController
-@RequestMapping("/api/tasks") // Unified endpoint
+@RequestMapping({"/api/tasks", "/api/tenants/{tenant}/tasks"}) // Unified endpoint; tenant from the path or X-Tenant-Id
 public class TaskNoSQLController {
     
+    private static final String NDJSON = "application/x-ndjson";
+    
+    // Set when includeArchived left archived tasks out; pass it back as archiveAfter for the next page
+    private static final String ARCHIVE_CURSOR_HEADER = "X-Archive-Cursor";
+    
     @Autowired
     private TaskNoSQLService taskService;
     
+    @Autowired
+    private TaskBulkService taskBulkService;
+    
+    @Autowired
+    private TaskSyncService taskSyncService;
+    
     @GetMapping
-    public ResponseEntity<List<TaskNoSQL>> getAllTasks() {
+    public ResponseEntity<List<TaskNoSQL>> getAllTasks(@RequestParam(defaultValue = "false") boolean includeArchived,
+                                                       @RequestParam(required = false) String archiveAfter) {
         try {
-            List<TaskNoSQL> tasks = taskService.getAllTasks();
-            return ResponseEntity.ok(tasks);
+            return ok(taskService.getAllTasks(includeArchived, archiveAfter));
+        } catch (ExecutionException | InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    @GetMapping(params = "ids")
+    public ResponseEntity<Map<String, Object>> getTasksByIds(@RequestParam List<String> ids,
+                                                             @RequestParam(defaultValue = "false") boolean includeArchived) {
+        return lookupTasks(ids, includeArchived);
+    }
+    
+    @PostMapping("/lookup")
+    public ResponseEntity<Map<String, Object>> lookupTasks(@RequestBody List<String> ids,
+                                                           @RequestParam(defaultValue = "false") boolean includeArchived) {
+        try {
+            return ResponseEntity.ok(taskService.lookupTasks(ids, includeArchived));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (ExecutionException | InterruptedException e) {
             Thread.currentThread().interrupt();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -31,9 +72,9 @@ public class TaskNoSQLController {
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<TaskNoSQL> getTaskById(@PathVariable String id) {
+    public ResponseEntity<TaskNoSQL> getTaskById(@PathVariable String id, @RequestParam(defaultValue = "false") boolean includeArchived) {
         try {
-            Optional<TaskNoSQL> task = taskService.getTaskById(id);
+            Optional<TaskNoSQL> task = taskService.getTaskById(id, includeArchived);
             return task.map(ResponseEntity::ok)
                       .orElse(ResponseEntity.notFound().build());
         } catch (ExecutionException | InterruptedException e) {
@@ -80,11 +121,11 @@ public class TaskNoSQLController {
     }
     
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<TaskNoSQL>> getTasksByStatus(@PathVariable String status) {
+    public ResponseEntity<List<TaskNoSQL>> getTasksByStatus(@PathVariable String status, @RequestParam(defaultValue = "false") boolean includeArchived,
+                                                            @RequestParam(required = false) String archiveAfter) {
         try {
             TaskNoSQL.TaskStatus taskStatus = TaskNoSQL.TaskStatus.valueOf(status.toUpperCase());
-            List<TaskNoSQL> tasks = taskService.getTasksByStatus(taskStatus);
-            return ResponseEntity.ok(tasks);
+            return ok(taskService.getTasksByStatus(taskStatus, includeArchived, archiveAfter));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
         } catch (ExecutionException | InterruptedException e) {
@@ -94,13 +135,75 @@ public class TaskNoSQLController {
     }
     
     @GetMapping("/search")
-    public ResponseEntity<List<TaskNoSQL>> searchTasks(@RequestParam String keyword) {
+    public ResponseEntity<List<TaskNoSQL>> searchTasks(@RequestParam String keyword, @RequestParam(defaultValue = "false") boolean includeArchived,
+                                                       @RequestParam(required = false) String archiveAfter) {
         try {
-            List<TaskNoSQL> tasks = taskService.searchTasks(keyword);
-            return ResponseEntity.ok(tasks);
+            return ok(taskService.searchTasks(keyword, includeArchived, archiveAfter));
         } catch (ExecutionException | InterruptedException e) {
             Thread.currentThread().interrupt();
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
+    
+    @GetMapping("/suggest")
+    public ResponseEntity<List<TaskSuggestion>> suggestTasks(@RequestParam String prefix,
+                                                             @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(taskService.suggestTasks(prefix, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
+    @GetMapping("/changes")
+    public ResponseEntity<Map<String, Object>> getChanges(@RequestParam(required = false) String since,
+                                                          @RequestParam(required = false) Integer limit) {
+        try {
+            return ResponseEntity.ok(taskSyncService.getChanges(since, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (SyncTokenExpiredException e) {
+            return ResponseEntity.status(HttpStatus.GONE).build();
+        } catch (ExecutionException | InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    @PostMapping(value = "/import", consumes = {NDJSON, MediaType.TEXT_PLAIN_VALUE, MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<Map<String, Object>> importTasks(InputStream body) {
+        try {
+            return ResponseEntity.ok(taskBulkService.importTasks(body));
+        } catch (IOException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (ExecutionException | InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+    
+    @GetMapping(value = "/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportTasks() {
+        // The body is written on an async thread, outside the request's tenant scope
+        String tenant = TenantContext.current();
+        StreamingResponseBody body = output -> {
+            try (TenantContext.Scope scope = TenantContext.open(tenant)) {
+                taskBulkService.exportTasks(output);
+            } catch (ExecutionException | InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Export aborted", e);
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(NDJSON))
+                .body(body);
+    }
+    
+    private static ResponseEntity<List<TaskNoSQL>> ok(TaskList list) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (list.nextArchiveCursor() != null) {
+            response.header(ARCHIVE_CURSOR_HEADER, list.nextArchiveCursor());
+        }
+        return response.body(list.tasks());
+    }
 }
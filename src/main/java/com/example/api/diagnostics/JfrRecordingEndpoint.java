@@ -0,0 +1,146 @@
+package com.example.api.diagnostics;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.web.server.ConditionalOnManagementPort;
+import org.springframework.boot.actuate.autoconfigure.web.server.ManagementPortType;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * On-demand Java Flight Recorder recordings at {@code /actuator/jfr}.
+ * <ul>
+ *   <li>{@code POST} starts a recording, bounded in duration and size</li>
+ *   <li>{@code GET} reports the state of the current recording</li>
+ *   <li>{@code DELETE} stops it (if still running) and downloads the .jfr file</li>
+ * </ul>
+ *
+ * <p>The application has no authentication, so the endpoint only exists when actuator runs on its
+ * own {@code management.server.port}, which is not reachable through the public service.
+ * Events that capture environment variables, system properties or command lines are left out of
+ * every recording, since they would put credentials such as {@code DATABASE_PASSWORD} in the file.
+ */
+@Component
+@Endpoint(id = "jfr")
+@ConditionalOnManagementPort(ManagementPortType.DIFFERENT)
+public class JfrRecordingEndpoint {
+    
+    private static final List<String> SENSITIVE_EVENTS = List.of(
+            "jdk.InitialEnvironmentVariable", "jdk.InitialSystemProperty", "jdk.JVMInformation", "jdk.SystemProcess");
+    
+    @Value("${app.jfr.default-duration:60s}")
+    private Duration defaultDuration;
+    
+    @Value("${app.jfr.max-duration:5m}")
+    private Duration maxDuration;
+    
+    @Value("${app.jfr.max-size-mb:100}")
+    private long maxSizeMb;
+    
+    private Recording recording;
+    private Path lastDump;
+    
+    @ReadOperation
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        if (recording == null) {
+            status.put("state", "NONE");
+            return status;
+        }
+        status.put("state", recording.getState().name());
+        status.put("name", recording.getName());
+        status.put("startTime", recording.getStartTime());
+        status.put("duration", recording.getDuration());
+        status.put("maxSizeBytes", recording.getMaxSize());
+        status.put("sizeBytes", recording.getSize());
+        return status;
+    }
+    
+    /**
+     * @param durationSeconds how long to record, must be positive; capped at {@code app.jfr.max-duration}
+     * @param settings JFR configuration to use, {@code default} (~1% overhead) or {@code profile}
+     */
+    @WriteOperation
+    public synchronized WebEndpointResponse<Map<String, Object>> start(@Nullable Long durationSeconds, @Nullable String settings) {
+        if (durationSeconds != null && durationSeconds <= 0) {
+            return new WebEndpointResponse<>(Map.of("error", "durationSeconds must be positive, was " + durationSeconds),
+                    WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return new WebEndpointResponse<>(status(), HttpStatus.CONFLICT.value());
+        }
+        closeRecording();
+        
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings != null ? settings : "default");
+        } catch (IOException | ParseException e) {
+            return new WebEndpointResponse<>(Map.of("error", "Unknown JFR settings: " + settings), WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        
+        Duration duration = durationSeconds != null ? Duration.ofSeconds(durationSeconds) : defaultDuration;
+        if (duration.compareTo(maxDuration) > 0) {
+            duration = maxDuration;
+        }
+        
+        recording = new Recording(configuration);
+        recording.setName("on-demand-" + System.currentTimeMillis());
+        recording.setDuration(duration);
+        recording.setMaxSize(maxSizeMb * 1024 * 1024);
+        recording.setToDisk(true);
+        SENSITIVE_EVENTS.forEach(recording::disable);
+        recording.enable(TaskRepositoryEvent.class);
+        recording.enable(TaskConversionEvent.class);
+        recording.start();
+        return new WebEndpointResponse<>(status(), WebEndpointResponse.STATUS_OK);
+    }
+    
+    @DeleteOperation
+    public synchronized WebEndpointResponse<Resource> stop() throws IOException {
+        if (recording == null) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        if (recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+        }
+        
+        deleteLastDump();
+        lastDump = Files.createTempFile(recording.getName(), ".jfr");
+        recording.dump(lastDump);
+        closeRecording();
+        return new WebEndpointResponse<>(new FileSystemResource(lastDump), WebEndpointResponse.STATUS_OK);
+    }
+    
+    private void closeRecording() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+    
+    private void deleteLastDump() throws IOException {
+        if (lastDump != null) {
+            Files.deleteIfExists(lastDump);
+            lastDump = null;
+        }
+    }
+}
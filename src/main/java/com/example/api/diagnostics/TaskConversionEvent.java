@@ -0,0 +1,39 @@
+package com.example.api.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event around converting one Firestore document into a TaskNoSQL.
+ */
+@Name("com.example.api.TaskConversion")
+@Label("Task Conversion")
+@Category({"Application", "Tasks"})
+@Description("Firestore document converted by TaskConverter")
+@StackTrace(false)
+public class TaskConversionEvent extends Event {
+    
+    @Label("Document Id")
+    private final String documentId;
+    
+    @Label("Fields")
+    private int fields;
+    
+    private TaskConversionEvent(String documentId) {
+        this.documentId = documentId;
+    }
+    
+    public static TaskConversionEvent start(String documentId) {
+        TaskConversionEvent event = new TaskConversionEvent(documentId);
+        event.begin();
+        return event;
+    }
+    
+    public void setFields(int fields) {
+        this.fields = fields;
+    }
+}
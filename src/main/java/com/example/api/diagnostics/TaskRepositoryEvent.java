@@ -0,0 +1,51 @@
+package com.example.api.diagnostics;
+
+import com.example.api.tenant.TenantContext;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event around a single repository call. Costs next to nothing unless a recording is running.
+ */
+@Name("com.example.api.TaskRepository")
+@Label("Task Repository Call")
+@Category({"Application", "Tasks"})
+@Description("Firestore round trip made by TaskRepositoryImpl")
+@StackTrace(false)
+public class TaskRepositoryEvent extends Event {
+    
+    @Label("Operation")
+    private final String operation;
+    
+    @Label("Tenant")
+    private final String tenant;
+    
+    @Label("Documents Returned")
+    private int documents;
+    
+    @Label("Failed")
+    private boolean failed = true;
+    
+    private TaskRepositoryEvent(String operation) {
+        this.operation = operation;
+        this.tenant = TenantContext.current();
+    }
+    
+    public static TaskRepositoryEvent start(String operation) {
+        TaskRepositoryEvent event = new TaskRepositoryEvent(operation);
+        event.begin();
+        return event;
+    }
+    
+    /**
+     * Marks the call successful. Events that are committed without this are recorded as failed.
+     */
+    public void succeeded(int documents) {
+        this.documents = documents;
+        this.failed = false;
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.api.model;
+
+import java.util.List;
+
+/**
+ * Tasks for a list or search request, plus where to continue in the archive when the request
+ * included archived tasks and more remain; {@code nextArchiveCursor} is null once it is exhausted.
+ */
+public record TaskList(List<TaskNoSQL> tasks, String nextArchiveCursor) {
+    
+    public static TaskList of(List<TaskNoSQL> tasks) {
+        return new TaskList(tasks, null);
+    }
+}
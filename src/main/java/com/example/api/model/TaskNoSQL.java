@@ -59,6 +59,20 @@ public class TaskNoSQL {
         this.firestoreUpdatedAt = now;
     }
     
+    public TaskNoSQL(TaskNoSQL source) {
+        this.id = source.id;
+        this.title = source.title;
+        this.description = source.description;
+        this.status = source.status;
+        this.firestoreCreatedAt = source.firestoreCreatedAt;
+        this.firestoreUpdatedAt = source.firestoreUpdatedAt;
+        this.firestoreDueDate = source.firestoreDueDate;
+        this.createdAt = source.createdAt;
+        this.updatedAt = source.updatedAt;
+        this.dueDate = source.dueDate;
+        this.assignee = source.assignee;
+    }
+    
     // Getters and Setters
     public String getId() {
         return id;
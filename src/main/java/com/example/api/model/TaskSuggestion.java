@@ -0,0 +1,7 @@
+package com.example.api.model;
+
+/**
+ * Lightweight typeahead result; carries just enough to render and select a task.
+ */
+public record TaskSuggestion(String id, String title, TaskNoSQL.TaskStatus status) {
+}
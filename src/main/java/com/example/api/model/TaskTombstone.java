@@ -0,0 +1,26 @@
+package com.example.api.model;
+
+import com.google.cloud.Timestamp;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Marker left behind when a task is deleted, so incremental readers can see the deletion.
+ */
+public record TaskTombstone(String id, Timestamp deletedAt) {
+    
+    // Tombstones share the tasks' ordering field so both are read with the same range query
+    public static final String DELETED_AT_FIELD = "firestoreUpdatedAt";
+    
+    // Firestore TTL policies delete tombstones once this time has passed
+    public static final String EXPIRE_AT_FIELD = "expireAt";
+    
+    /**
+     * The stored form of this tombstone, expiring {@code retention} after the deletion.
+     */
+    public Map<String, Object> toDocument(Duration retention) {
+        Timestamp expireAt = Timestamp.ofTimeSecondsAndNanos(deletedAt.getSeconds() + retention.getSeconds(), deletedAt.getNanos());
+        return Map.of(DELETED_AT_FIELD, deletedAt, EXPIRE_AT_FIELD, expireAt);
+    }
+}
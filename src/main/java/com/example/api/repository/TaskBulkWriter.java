@@ -0,0 +1,24 @@
+package com.example.api.repository;
+
+import com.example.api.model.TaskNoSQL;
+
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Streaming writer for bulk task imports. Implementations bound the number of
+ * writes in flight, so {@link #write(TaskNoSQL)} blocks once the backend falls behind.
+ */
+public interface TaskBulkWriter extends AutoCloseable {
+    
+    void write(TaskNoSQL task) throws InterruptedException;
+    
+    long getSucceededCount();
+    
+    long getFailedCount();
+    
+    /**
+     * Flushes all pending writes and waits for them to complete.
+     */
+    @Override
+    void close() throws ExecutionException, InterruptedException;
+}
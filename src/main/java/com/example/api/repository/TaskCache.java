@@ -0,0 +1,143 @@
+package com.example.api.repository;
+
+import com.example.api.model.TaskNoSQL;
+import com.example.api.tenant.TenantContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Last-known-good copies of tasks read from Firestore. Reads always go to Firestore first;
+ * this cache is only consulted when the read circuit breaker is open, so it trades
+ * freshness for availability during an outage.
+ *
+ * <p>Entries are keyed by tenant, so a tenant only ever sees its own tasks. The entry
+ * limit is shared: busy tenants displace idle ones.
+ *
+ * <p>Tasks are copied in and out, so callers that edit a task they read cannot change the cached
+ * version. Read results are stored with the {@link #stamp()} taken before the read started and
+ * are dropped if the task was written or evicted since, so a read that raced a delete cannot
+ * bring the deleted task back.
+ */
+@Component
+public class TaskCache {
+    
+    private final int maxEntries;
+    private final Map<String, Entry> byId;
+    private final Map<String, List<TaskNoSQL>> byStatus = new HashMap<>();
+    
+    // Bumped by every change; guarded by this
+    private long clock;
+    
+    // Newest version of an entry the size limit pushed out, standing in for all forgotten keys
+    private long forgottenVersion;
+    
+    // Version of the last invalidateQueries
+    private long queriesVersion;
+    
+    public TaskCache(@Value("${app.tasks.cache.max-entries:10000}") int maxEntries, MeterRegistry meterRegistry) {
+        this.maxEntries = maxEntries;
+        this.byId = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() <= TaskCache.this.maxEntries) {
+                    return false;
+                }
+                forgottenVersion = Math.max(forgottenVersion, eldest.getValue().version());
+                return true;
+            }
+        };
+        meterRegistry.gauge("tasks.cache.size", this, TaskCache::size);
+    }
+    
+    /**
+     * Marks the start of a read whose results are later passed to the {@code IfUnchanged} puts.
+     */
+    public synchronized long stamp() {
+        return clock;
+    }
+    
+    public synchronized Optional<TaskNoSQL> get(String id) {
+        Entry entry = byId.get(key(id));
+        return entry == null || entry.task() == null ? Optional.empty() : Optional.of(new TaskNoSQL(entry.task()));
+    }
+    
+    /**
+     * Stores a task this instance just wrote.
+     */
+    public synchronized void put(TaskNoSQL task) {
+        if (task.getId() != null) {
+            byId.put(key(task.getId()), new Entry(new TaskNoSQL(task), ++clock));
+        }
+    }
+    
+    /**
+     * Stores a task read from Firestore, unless it was written or evicted after {@code stamp}.
+     */
+    public synchronized void putIfUnchanged(TaskNoSQL task, long stamp) {
+        if (task.getId() == null) {
+            return;
+        }
+        String key = key(task.getId());
+        Entry entry = byId.get(key);
+        if ((entry != null ? entry.version() : forgottenVersion) <= stamp) {
+            byId.put(key, new Entry(new TaskNoSQL(task), ++clock));
+        }
+    }
+    
+    public synchronized void putAllIfUnchanged(Collection<TaskNoSQL> tasks, long stamp) {
+        tasks.forEach(task -> putIfUnchanged(task, stamp));
+    }
+    
+    public synchronized void evict(String id) {
+        // Kept as an empty entry, so a read that started earlier cannot put the task back
+        byId.put(key(id), new Entry(null, ++clock));
+    }
+    
+    public synchronized int size() {
+        return (int) byId.values().stream().filter(entry -> entry.task() != null).count();
+    }
+    
+    public synchronized Optional<List<TaskNoSQL>> getByStatus(TaskNoSQL.TaskStatus status) {
+        return Optional.ofNullable(byStatus.get(key(status.name()))).map(TaskCache::copies);
+    }
+    
+    /**
+     * Stores a status query result, unless queries were invalidated after {@code stamp}.
+     */
+    public synchronized void putByStatus(TaskNoSQL.TaskStatus status, List<TaskNoSQL> tasks, long stamp) {
+        if (queriesVersion <= stamp) {
+            byStatus.put(key(status.name()), copies(tasks));
+        }
+    }
+    
+    /**
+     * Drops the current tenant's cached status query results; any write can move a task between them.
+     */
+    public synchronized void invalidateQueries() {
+        String prefix = key("");
+        byStatus.keySet().removeIf(key -> key.startsWith(prefix));
+        queriesVersion = ++clock;
+    }
+    
+    private static List<TaskNoSQL> copies(List<TaskNoSQL> tasks) {
+        return tasks.stream().map(TaskNoSQL::new).toList();
+    }
+    
+    private static String key(String id) {
+        return TenantContext.current() + '/' + id;
+    }
+    
+    /**
+     * A cached task, or null for one evicted at {@code version}.
+     */
+    private record Entry(TaskNoSQL task, long version) {
+    }
+}
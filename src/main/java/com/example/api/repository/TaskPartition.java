@@ -0,0 +1,21 @@
+package com.example.api.repository;
+
+import com.example.api.model.TaskNoSQL;
+
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * One document-id range of the task collection, as returned by
+ * {@link TaskRepositoryNoSQL#partitions(int)}. Partitions do not overlap and can be read concurrently.
+ */
+@FunctionalInterface
+public interface TaskPartition {
+    
+    /**
+     * Reads the partition in document-id order. Documents are converted on the calling thread,
+     * page by page, before being handed to the consumer.
+     */
+    void forEachPage(int pageSize, Consumer<List<TaskNoSQL>> pageConsumer) throws ExecutionException, InterruptedException;
+}
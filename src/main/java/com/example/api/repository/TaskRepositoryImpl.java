@@ -1,60 +1,115 @@
 package com.example.api.repository;
 
 import com.example.api.config.TaskConverter;
+import com.example.api.diagnostics.TaskRepositoryEvent;
 import com.example.api.model.TaskNoSQL;
+import com.example.api.model.TaskTombstone;
+import com.example.api.resilience.CircuitOpenException;
+import com.example.api.resilience.ResilientFirestoreReader;
+import com.example.api.tenant.TenantContext;
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
 import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.BulkWriter;
+import com.google.cloud.firestore.CollectionGroup;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldPath;
 import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.QueryPartition;
+import com.google.cloud.firestore.WriteBatch;
+import com.google.cloud.firestore.WriteResult;
+import com.google.common.util.concurrent.MoreExecutors;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 @Repository
 public class TaskRepositoryImpl implements TaskRepositoryNoSQL {
     
     private static final String COLLECTION_NAME = "tasks";
     
+    private static final String TOMBSTONE_COLLECTION_NAME = "tasks_tombstones";
+    
+    private static final String ARCHIVE_COLLECTION_NAME = "tasks_archive";
+    
+    // Tombstones share the tasks' ordering field so both are read with the same range query
+    private static final String UPDATED_AT = "firestoreUpdatedAt";
+    
+    private static final String ARCHIVED_AT = "archivedAt";
+    
     @Autowired
     private Firestore firestore;
     
     @Autowired
     private TaskConverter taskConverter;
     
+    @Autowired
+    private ResilientFirestoreReader reader;
+    
+    @Autowired
+    private TaskCache taskCache;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${app.tasks.changes.tombstone-retention:30d}")
+    private Duration tombstoneRetention;
+    
     @Override
     public List<TaskNoSQL> findAll() throws ExecutionException, InterruptedException {
-        List<TaskNoSQL> tasks = new ArrayList<>();
-        firestore.collection(COLLECTION_NAME)
-                .get()
-                .get()
-                .getDocuments()
-                .forEach(document -> {
-                    try {
-                        TaskNoSQL task = taskConverter.convertFromFirestore(document);
-                        if (task != null) {
-                            tasks.add(task);
-                        }
-                    } catch (Exception e) {
-                        // Log error but continue processing other documents
-                        System.err.println("Error converting document " + document.getId() + ": " + e.getMessage());
-                    }
-                });
-        return tasks;
+        TaskRepositoryEvent event = TaskRepositoryEvent.start("findAll");
+        try {
+            List<TaskNoSQL> tasks = convertDocuments(tasks()
+                    .get()
+                    .get()
+                    .getDocuments());
+            event.succeeded(tasks.size());
+            return tasks;
+        } finally {
+            event.commit();
+        }
     }
     
     @Override
     public Optional<TaskNoSQL> findById(String id) throws ExecutionException, InterruptedException {
-        var document = firestore.collection(COLLECTION_NAME)
-                .document(id)
-                .get()
-                .get();
+        DocumentReference reference = tasks().document(id);
+        long stamp = taskCache.stamp();
+        TaskRepositoryEvent event = TaskRepositoryEvent.start("findById");
+        DocumentSnapshot document;
+        try {
+            document = reader.read("findById", reference::get);
+            event.succeeded(document.exists() ? 1 : 0);
+        } catch (CircuitOpenException e) {
+            return Optional.of(fromCache("findById", taskCache.get(id), e));
+        } finally {
+            event.commit();
+        }
         
         if (document.exists()) {
             try {
                 TaskNoSQL task = taskConverter.convertFromFirestore(document);
+                if (task != null) {
+                    taskCache.putIfUnchanged(task, stamp);
+                }
                 return Optional.ofNullable(task);
             } catch (Exception e) {
                 System.err.println("Error converting document " + id + ": " + e.getMessage());
@@ -65,49 +120,85 @@ public class TaskRepositoryImpl implements TaskRepositoryNoSQL {
     }
     
     @Override
-    public TaskNoSQL save(TaskNoSQL task) throws ExecutionException, InterruptedException {
-        if (task.getId() == null || task.getId().isEmpty()) {
-            // Create new task
-            task.setId(UUID.randomUUID().toString());
-            task.setFirestoreCreatedAt(Timestamp.now());
+    public List<TaskNoSQL> findAllById(List<String> ids) throws ExecutionException, InterruptedException {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
         }
-        task.setFirestoreUpdatedAt(Timestamp.now());
         
-        firestore.collection(COLLECTION_NAME)
-                .document(task.getId())
-                .set(task)
-                .get();
+        CollectionReference collection = tasks();
+        DocumentReference[] references = ids.stream()
+                .map(collection::document)
+                .toArray(DocumentReference[]::new);
         
+        long stamp = taskCache.stamp();
+        TaskRepositoryEvent event = TaskRepositoryEvent.start("findAllById");
+        try {
+            // getAll returns snapshots in request order, including ones that do not exist
+            List<TaskNoSQL> tasks = convertDocuments(reader.read("findAllById", () -> firestore.getAll(references)));
+            taskCache.putAllIfUnchanged(tasks, stamp);
+            event.succeeded(tasks.size());
+            return tasks;
+        } catch (CircuitOpenException e) {
+            // Only answer from cache when every id is cached; otherwise "not found" would be a guess
+            List<TaskNoSQL> cached = ids.stream().flatMap(id -> taskCache.get(id).stream()).toList();
+            return fromCache("findAllById", cached.size() == ids.size() ? Optional.of(cached) : Optional.empty(), e);
+        } finally {
+            event.commit();
+        }
+    }
+    
+    @Override
+    public TaskNoSQL save(TaskNoSQL task) throws ExecutionException, InterruptedException {
+        prepareForSave(task);
+        
+        TaskRepositoryEvent event = TaskRepositoryEvent.start("save");
+        try {
+            tasks().document(task.getId())
+                    .set(task)
+                    .get();
+            event.succeeded(1);
+        } finally {
+            event.commit();
+        }
+        
+        taskCache.put(task);
+        taskCache.invalidateQueries();
         return task;
     }
     
     @Override
     public void deleteById(String id) throws ExecutionException, InterruptedException {
-        firestore.collection(COLLECTION_NAME)
-                .document(id)
-                .delete()
-                .get();
+        WriteBatch batch = firestore.batch();
+        batch.delete(tasks().document(id));
+        batch.set(tombstones().document(id), new TaskTombstone(id, Timestamp.now()).toDocument(tombstoneRetention));
+        
+        TaskRepositoryEvent event = TaskRepositoryEvent.start("deleteById");
+        try {
+            batch.commit().get();
+            event.succeeded(1);
+        } finally {
+            event.commit();
+        }
+        
+        taskCache.evict(id);
+        taskCache.invalidateQueries();
     }
     
     @Override
     public List<TaskNoSQL> findByStatus(TaskNoSQL.TaskStatus status) throws ExecutionException, InterruptedException {
-        List<TaskNoSQL> tasks = new ArrayList<>();
-        firestore.collection(COLLECTION_NAME)
-                .whereEqualTo("status", status.toString())
-                .get()
-                .get()
-                .getDocuments()
-                .forEach(document -> {
-                    try {
-                        TaskNoSQL task = taskConverter.convertFromFirestore(document);
-                        if (task != null) {
-                            tasks.add(task);
-                        }
-                    } catch (Exception e) {
-                        System.err.println("Error converting document " + document.getId() + ": " + e.getMessage());
-                    }
-                });
-        return tasks;
+        Query query = tasks().whereEqualTo("status", status.toString());
+        long stamp = taskCache.stamp();
+        TaskRepositoryEvent event = TaskRepositoryEvent.start("findByStatus");
+        try {
+            List<TaskNoSQL> tasks = convertDocuments(reader.read("findByStatus", query::get).getDocuments());
+            taskCache.putByStatus(status, tasks, stamp);
+            event.succeeded(tasks.size());
+            return tasks;
+        } catch (CircuitOpenException e) {
+            return fromCache("findByStatus", taskCache.getByStatus(status), e);
+        } finally {
+            event.commit();
+        }
     }
     
     @Override
@@ -117,29 +208,353 @@ public class TaskRepositoryImpl implements TaskRepositoryNoSQL {
         
         // Note: Firestore doesn't support case-insensitive text search directly
         // This is a basic implementation - for production, consider using Algolia or similar
-        firestore.collection(COLLECTION_NAME)
-                .get()
-                .get()
-                .getDocuments()
-                .forEach(document -> {
-                    TaskNoSQL task = document.toObject(TaskNoSQL.class);
-                    task.setId(document.getId());
-                    
-                    if ((task.getTitle() != null && task.getTitle().toLowerCase().contains(searchKeyword)) ||
-                        (task.getDescription() != null && task.getDescription().toLowerCase().contains(searchKeyword))) {
-                        tasks.add(task);
-                    }
-                });
+        TaskRepositoryEvent event = TaskRepositoryEvent.start("findByTitleOrDescriptionContaining");
+        try {
+            tasks().get()
+                    .get()
+                    .getDocuments()
+                    .forEach(document -> {
+                        TaskNoSQL task = document.toObject(TaskNoSQL.class);
+                        task.setId(document.getId());
+                        
+                        if ((task.getTitle() != null && task.getTitle().toLowerCase().contains(searchKeyword)) ||
+                            (task.getDescription() != null && task.getDescription().toLowerCase().contains(searchKeyword))) {
+                            tasks.add(task);
+                        }
+                    });
+            event.succeeded(tasks.size());
+        } finally {
+            event.commit();
+        }
         
         return tasks;
     }
     
     @Override
     public boolean existsById(String id) throws ExecutionException, InterruptedException {
-        return firestore.collection(COLLECTION_NAME)
-                .document(id)
-                .get()
-                .get()
-                .exists();
+        DocumentReference reference = tasks().document(id);
+        TaskRepositoryEvent event = TaskRepositoryEvent.start("existsById");
+        try {
+            boolean exists = reader.read("existsById", reference::get).exists();
+            event.succeeded(exists ? 1 : 0);
+            return exists;
+        } catch (CircuitOpenException e) {
+            return fromCache("existsById", taskCache.get(id).map(task -> true), e);
+        } finally {
+            event.commit();
+        }
+    }
+    
+    @Override
+    public void forEachPage(int pageSize, Consumer<List<TaskNoSQL>> pageConsumer) throws ExecutionException, InterruptedException {
+        forEachPage(tasks().orderBy(FieldPath.documentId()), pageSize, pageConsumer);
+    }
+    
+    @Override
+    public List<TaskPartition> partitions(int desiredCount) throws ExecutionException, InterruptedException {
+        // Partition queries only exist for collection groups; no other collection shares the tasks collection's id
+        CollectionGroup group = firestore.collectionGroup(TenantContext.collectionName(COLLECTION_NAME));
+        List<QueryPartition> partitions;
+        TaskRepositoryEvent event = TaskRepositoryEvent.start("partitions");
+        try {
+            partitions = group.getPartitions(desiredCount).get();
+            event.succeeded(partitions.size());
+        } finally {
+            event.commit();
+        }
+        
+        List<TaskPartition> result = new ArrayList<>(partitions.size());
+        for (QueryPartition partition : partitions) {
+            Query query = partition.createQuery();
+            result.add((pageSize, pageConsumer) -> forEachPage(query, pageSize, pageConsumer));
+        }
+        return result;
+    }
+    
+    /**
+     * Pages through a query ordered by document id.
+     */
+    private void forEachPage(Query orderedQuery, int pageSize, Consumer<List<TaskNoSQL>> pageConsumer) throws ExecutionException, InterruptedException {
+        Query query = orderedQuery.limit(pageSize);
+        DocumentSnapshot lastDocument = null;
+        
+        while (true) {
+            Query page = lastDocument == null ? query : query.startAfter(lastDocument);
+            List<QueryDocumentSnapshot> documents;
+            TaskRepositoryEvent event = TaskRepositoryEvent.start("forEachPage");
+            try {
+                documents = page.get().get().getDocuments();
+                event.succeeded(documents.size());
+            } finally {
+                event.commit();
+            }
+            if (documents.isEmpty()) {
+                return;
+            }
+            
+            pageConsumer.accept(convertDocuments(documents));
+            
+            if (documents.size() < pageSize) {
+                return;
+            }
+            lastDocument = documents.get(documents.size() - 1);
+        }
+    }
+    
+    @Override
+    public List<TaskNoSQL> findUpdatedAfter(Timestamp updatedAfter, String afterId, int limit) throws ExecutionException, InterruptedException {
+        Query query = tasks()
+                .orderBy(UPDATED_AT)
+                .orderBy(FieldPath.documentId())
+                .limit(limit);
+        query = afterId == null ? query.startAfter(updatedAfter) : query.startAfter(updatedAfter, afterId);
+        
+        TaskRepositoryEvent event = TaskRepositoryEvent.start("findUpdatedAfter");
+        try {
+            List<TaskNoSQL> tasks = convertDocuments(query.get().get().getDocuments());
+            event.succeeded(tasks.size());
+            return tasks;
+        } finally {
+            event.commit();
+        }
+    }
+    
+    @Override
+    public List<TaskTombstone> findDeletedAfter(Timestamp deletedAfter, String afterId, int limit) throws ExecutionException, InterruptedException {
+        Query query = tombstones()
+                .orderBy(UPDATED_AT)
+                .orderBy(FieldPath.documentId())
+                .limit(limit);
+        query = afterId == null ? query.startAfter(deletedAfter) : query.startAfter(deletedAfter, afterId);
+        
+        TaskRepositoryEvent event = TaskRepositoryEvent.start("findDeletedAfter");
+        try {
+            List<QueryDocumentSnapshot> documents = query.get().get().getDocuments();
+            List<TaskTombstone> tombstones = new ArrayList<>(documents.size());
+            for (QueryDocumentSnapshot document : documents) {
+                tombstones.add(new TaskTombstone(document.getId(), document.getTimestamp(UPDATED_AT)));
+            }
+            event.succeeded(tombstones.size());
+            return tombstones;
+        } finally {
+            event.commit();
+        }
+    }
+    
+    @Override
+    public List<TaskNoSQL> findArchived(TaskNoSQL.TaskStatus status, String afterId, int limit) throws ExecutionException, InterruptedException {
+        // Document id order needs no composite index, so this works on every tenant's archive
+        Query query = (status == null ? archived() : archived().whereEqualTo("status", status.toString()))
+                .orderBy(FieldPath.documentId())
+                .limit(limit);
+        if (afterId != null) {
+            query = query.startAfter(afterId);
+        }
+        TaskRepositoryEvent event = TaskRepositoryEvent.start("findArchived");
+        try {
+            List<TaskNoSQL> tasks = convertDocuments(query.get().get().getDocuments());
+            event.succeeded(tasks.size());
+            return tasks;
+        } finally {
+            event.commit();
+        }
+    }
+    
+    @Override
+    public List<TaskNoSQL> findArchivedById(List<String> ids) throws ExecutionException, InterruptedException {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        
+        CollectionReference collection = archived();
+        DocumentReference[] references = ids.stream()
+                .map(collection::document)
+                .toArray(DocumentReference[]::new);
+        
+        TaskRepositoryEvent event = TaskRepositoryEvent.start("findArchivedById");
+        try {
+            List<TaskNoSQL> tasks = convertDocuments(firestore.getAll(references).get());
+            event.succeeded(tasks.size());
+            return tasks;
+        } finally {
+            event.commit();
+        }
+    }
+    
+    @Override
+    public List<TaskNoSQL> archive(Collection<TaskNoSQL.TaskStatus> statuses, Timestamp updatedBefore, int limit)
+            throws ExecutionException, InterruptedException {
+        CollectionReference archive = archived();
+        CollectionReference tombstones = tombstones();
+        Query query = tasks()
+                .whereIn("status", statuses.stream().map(TaskNoSQL.TaskStatus::toString).toList())
+                .whereLessThan(UPDATED_AT, updatedBefore)
+                .orderBy(UPDATED_AT)
+                .limit(limit);
+        
+        TaskRepositoryEvent event = TaskRepositoryEvent.start("archive");
+        List<QueryDocumentSnapshot> moved;
+        try {
+            // Reading the batch inside the transaction means a task updated meanwhile is retried, not clobbered
+            moved = firestore.runTransaction(transaction -> {
+                List<QueryDocumentSnapshot> documents = transaction.get(query).get().getDocuments();
+                Timestamp archivedAt = Timestamp.now();
+                for (QueryDocumentSnapshot document : documents) {
+                    Map<String, Object> data = new HashMap<>(document.getData());
+                    data.put(ARCHIVED_AT, archivedAt);
+                    transaction.set(archive.document(document.getId()), data);
+                    transaction.delete(document.getReference());
+                    transaction.set(tombstones.document(document.getId()),
+                            new TaskTombstone(document.getId(), archivedAt).toDocument(tombstoneRetention));
+                }
+                return documents;
+            }).get();
+            event.succeeded(moved.size());
+        } finally {
+            event.commit();
+        }
+        
+        List<TaskNoSQL> tasks = convertDocuments(moved);
+        tasks.forEach(task -> taskCache.evict(task.getId()));
+        taskCache.invalidateQueries();
+        return tasks;
+    }
+    
+    @Override
+    public TaskBulkWriter bulkWriter(int maxInFlight, Consumer<TaskNoSQL> onWritten) {
+        return new FirestoreTaskBulkWriter(firestore.bulkWriter(), tasks(), taskCache, maxInFlight, onWritten);
+    }
+    
+    /**
+     * The current tenant's task collection. Resolved on the calling thread, since tenant
+     * context does not follow work onto Firestore's callback threads.
+     */
+    private CollectionReference tasks() {
+        return firestore.collection(TenantContext.collectionName(COLLECTION_NAME));
+    }
+    
+    private CollectionReference archived() {
+        return firestore.collection(TenantContext.collectionName(ARCHIVE_COLLECTION_NAME));
+    }
+    
+    private CollectionReference tombstones() {
+        return firestore.collection(TenantContext.collectionName(TOMBSTONE_COLLECTION_NAME));
+    }
+    
+    private static void prepareForSave(TaskNoSQL task) {
+        if (task.getId() == null || task.getId().isEmpty()) {
+            // Create new task
+            task.setId(UUID.randomUUID().toString());
+            task.setFirestoreCreatedAt(Timestamp.now());
+        }
+        task.setFirestoreUpdatedAt(Timestamp.now());
+    }
+    
+    /**
+     * Serves a read from the last-known-good cache while the circuit is open, or fails fast.
+     */
+    private <T> T fromCache(String operation, Optional<T> cached, CircuitOpenException e) throws ExecutionException {
+        meterRegistry.counter("firestore.read.cache.fallback", "operation", operation, "tenant", TenantContext.current(),
+                "outcome", cached.isPresent() ? "hit" : "miss").increment();
+        return cached.orElseThrow(() -> new ExecutionException(e));
+    }
+    
+    private List<TaskNoSQL> convertDocuments(List<? extends DocumentSnapshot> documents) {
+        List<TaskNoSQL> tasks = new ArrayList<>(documents.size());
+        for (DocumentSnapshot document : documents) {
+            try {
+                TaskNoSQL task = taskConverter.convertFromFirestore(document);
+                if (task != null) {
+                    tasks.add(task);
+                }
+            } catch (Exception e) {
+                // Log error but continue processing other documents
+                System.err.println("Error converting document " + document.getId() + ": " + e.getMessage());
+            }
+        }
+        return tasks;
+    }
+    
+    private static class FirestoreTaskBulkWriter implements TaskBulkWriter {
+        
+        private final BulkWriter bulkWriter;
+        private final CollectionReference collection;
+        private final TaskCache taskCache;
+        private final Semaphore inFlight;
+        private final Consumer<TaskNoSQL> onWritten;
+        private final String tenant = TenantContext.current();
+        private final AtomicLong succeeded = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        
+        FirestoreTaskBulkWriter(BulkWriter bulkWriter, CollectionReference collection, TaskCache taskCache, int maxInFlight,
+                Consumer<TaskNoSQL> onWritten) {
+            this.bulkWriter = bulkWriter;
+            this.collection = collection;
+            this.taskCache = taskCache;
+            this.inFlight = new Semaphore(Math.max(1, maxInFlight));
+            this.onWritten = onWritten;
+        }
+        
+        @Override
+        public void write(TaskNoSQL task) throws InterruptedException {
+            prepareForSave(task);
+            
+            if (!inFlight.tryAcquire()) {
+                // BulkWriter only sends full batches on its own; push out partial ones before blocking
+                bulkWriter.flush();
+                inFlight.acquire();
+            }
+            
+            ApiFuture<WriteResult> result;
+            try {
+                result = bulkWriter.set(collection.document(task.getId()), task);
+            } catch (RuntimeException e) {
+                inFlight.release();
+                failed.incrementAndGet();
+                throw e;
+            }
+            
+            ApiFutures.addCallback(result, new ApiFutureCallback<>() {
+                @Override
+                public void onSuccess(WriteResult writeResult) {
+                    succeeded.incrementAndGet();
+                    inFlight.release();
+                    try (TenantContext.Scope scope = TenantContext.open(tenant)) {
+                        // Imports upsert by client-supplied id, so this may replace a cached copy
+                        taskCache.put(task);
+                        taskCache.invalidateQueries();
+                        onWritten.accept(task);
+                    }
+                }
+                
+                @Override
+                public void onFailure(Throwable t) {
+                    failed.incrementAndGet();
+                    inFlight.release();
+                    System.err.println("Error writing document " + task.getId() + ": " + t.getMessage());
+                }
+            }, MoreExecutors.directExecutor());
+        }
+        
+        @Override
+        public long getSucceededCount() {
+            return succeeded.get();
+        }
+        
+        @Override
+        public long getFailedCount() {
+            return failed.get();
+        }
+        
+        @Override
+        public void close() throws ExecutionException, InterruptedException {
+            TaskRepositoryEvent event = TaskRepositoryEvent.start("bulkWriterClose");
+            try {
+                bulkWriter.close();
+                event.succeeded((int) succeeded.get());
+            } finally {
+                event.commit();
+            }
+        }
     }
 }
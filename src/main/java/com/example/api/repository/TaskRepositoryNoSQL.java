@@ -1,9 +1,13 @@
 package com.example.api.repository;
 
 import com.example.api.model.TaskNoSQL;
+import com.example.api.model.TaskTombstone;
+import com.google.cloud.Timestamp;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
 
 public interface TaskRepositoryNoSQL {
     
@@ -11,8 +15,17 @@ public interface TaskRepositoryNoSQL {
     
     Optional<TaskNoSQL> findById(String id) throws ExecutionException, InterruptedException;
     
+    /**
+     * Fetches several tasks in one round trip. The result follows the order of {@code ids};
+     * ids that do not exist are left out.
+     */
+    List<TaskNoSQL> findAllById(List<String> ids) throws ExecutionException, InterruptedException;
+    
     TaskNoSQL save(TaskNoSQL task) throws ExecutionException, InterruptedException;
     
+    /**
+     * Deletes the task and records a {@link TaskTombstone} for it in the same write.
+     */
     void deleteById(String id) throws ExecutionException, InterruptedException;
     
     List<TaskNoSQL> findByStatus(TaskNoSQL.TaskStatus status) throws ExecutionException, InterruptedException;
@@ -20,4 +33,51 @@ public interface TaskRepositoryNoSQL {
     List<TaskNoSQL> findByTitleOrDescriptionContaining(String keyword) throws ExecutionException, InterruptedException;
     
     boolean existsById(String id) throws ExecutionException, InterruptedException;
+    
+    /**
+     * Reads the whole collection in document-id order, handing each page to the consumer
+     * before the next one is fetched so memory stays bounded by the page size.
+     */
+    void forEachPage(int pageSize, Consumer<List<TaskNoSQL>> pageConsumer) throws ExecutionException, InterruptedException;
+    
+    /**
+     * Splits the collection into at most {@code desiredCount} partitions, in document-id order, so
+     * a full scan can read them concurrently. May return fewer, down to a single partition.
+     */
+    List<TaskPartition> partitions(int desiredCount) throws ExecutionException, InterruptedException;
+    
+    /**
+     * Returns up to {@code limit} tasks ordered by {@code firestoreUpdatedAt} and then id, starting
+     * strictly after the given position. With a null {@code afterId}, every task updated exactly at
+     * {@code updatedAfter} is skipped as well.
+     */
+    List<TaskNoSQL> findUpdatedAfter(Timestamp updatedAfter, String afterId, int limit) throws ExecutionException, InterruptedException;
+    
+    /**
+     * Returns up to {@code limit} tombstones ordered by deletion time and then id, positioned
+     * like {@link #findUpdatedAfter}.
+     */
+    List<TaskTombstone> findDeletedAfter(Timestamp deletedAfter, String afterId, int limit) throws ExecutionException, InterruptedException;
+    
+    /**
+     * Up to {@code limit} tasks moved out of the working set by {@link #archive}, in id order
+     * and starting after {@code afterId} (if not null); with a null status, of any status.
+     */
+    List<TaskNoSQL> findArchived(TaskNoSQL.TaskStatus status, String afterId, int limit) throws ExecutionException, InterruptedException;
+    
+    List<TaskNoSQL> findArchivedById(List<String> ids) throws ExecutionException, InterruptedException;
+    
+    /**
+     * Moves up to {@code limit} tasks in one of {@code statuses} that were last updated before
+     * {@code updatedBefore} into the archive collection, in one transaction that also records a
+     * {@link TaskTombstone} for each, so incremental readers drop them from the working set.
+     *
+     * @return the tasks that were moved
+     */
+    List<TaskNoSQL> archive(Collection<TaskNoSQL.TaskStatus> statuses, Timestamp updatedBefore, int limit) throws ExecutionException, InterruptedException;
+    
+    /**
+     * @param onWritten called with each task once its write has been committed
+     */
+    TaskBulkWriter bulkWriter(int maxInFlight, Consumer<TaskNoSQL> onWritten);
 }
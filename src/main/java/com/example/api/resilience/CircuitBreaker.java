@@ -0,0 +1,130 @@
+package com.example.api.resilience;
+
+/**
+ * Count-based circuit breaker. Opens when the failure rate over the last {@code window}
+ * calls reaches the threshold, rejects calls for {@code openNanos}, then lets a few probe
+ * calls through (half-open) and closes again once they all succeed.
+ */
+class CircuitBreaker {
+    
+    enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+    
+    interface TransitionListener {
+        void onTransition(State from, State to);
+    }
+    
+    private final boolean[] outcomes;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openNanos;
+    private final int halfOpenCalls;
+    private final TransitionListener listener;
+    
+    private State state = State.CLOSED;
+    private int next;
+    private int recorded;
+    private int failures;
+    private long openedAt;
+    private int halfOpenPermits;
+    private int halfOpenSuccesses;
+    
+    CircuitBreaker(int window, int minimumCalls, double failureRateThreshold, long openNanos, int halfOpenCalls,
+                   TransitionListener listener) {
+        this.outcomes = new boolean[window];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openNanos = openNanos;
+        this.halfOpenCalls = halfOpenCalls;
+        this.listener = listener;
+    }
+    
+    synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) {
+                return false;
+            }
+            transition(State.HALF_OPEN);
+            halfOpenPermits = halfOpenCalls;
+            halfOpenSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenPermits == 0) {
+                return false;
+            }
+            halfOpenPermits--;
+        }
+        return true;
+    }
+    
+    synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++halfOpenSuccesses >= halfOpenCalls) {
+                reset();
+                transition(State.CLOSED);
+            }
+            return;
+        }
+        record(false);
+    }
+    
+    synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        record(true);
+        if (state == State.CLOSED && recorded >= minimumCalls && (double) failures / recorded >= failureRateThreshold) {
+            open();
+        }
+    }
+    
+    /**
+     * Returns a permit taken by {@link #tryAcquire()} whose call ended without an outcome.
+     */
+    synchronized void release() {
+        if (state == State.HALF_OPEN && halfOpenPermits + halfOpenSuccesses < halfOpenCalls) {
+            halfOpenPermits++;
+        }
+    }
+    
+    synchronized State getState() {
+        return state;
+    }
+    
+    private void record(boolean failed) {
+        if (recorded == outcomes.length) {
+            if (outcomes[next]) {
+                failures--;
+            }
+        } else {
+            recorded++;
+        }
+        outcomes[next] = failed;
+        if (failed) {
+            failures++;
+        }
+        next = (next + 1) % outcomes.length;
+    }
+    
+    private void open() {
+        reset();
+        openedAt = System.nanoTime();
+        transition(State.OPEN);
+    }
+    
+    private void reset() {
+        next = 0;
+        recorded = 0;
+        failures = 0;
+    }
+    
+    private void transition(State to) {
+        State from = state;
+        state = to;
+        if (from != to) {
+            listener.onTransition(from, to);
+        }
+    }
+}
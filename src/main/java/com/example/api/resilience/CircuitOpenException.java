@@ -0,0 +1,11 @@
+package com.example.api.resilience;
+
+/**
+ * Thrown instead of calling Firestore while the read circuit breaker is open.
+ */
+public class CircuitOpenException extends RuntimeException {
+    
+    public CircuitOpenException(String operation) {
+        super("Firestore read circuit is open; rejected " + operation);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.api.resilience;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the most recent read latencies in a ring buffer and answers percentile queries.
+ * The percentile is recomputed at most once per {@code RECOMPUTE_EVERY} samples, so
+ * lookups on the hot path are a field read.
+ */
+class LatencyTracker {
+    
+    private static final int RECOMPUTE_EVERY = 64;
+    
+    private final long[] samples;
+    private final double percentile;
+    private int next;
+    private int size;
+    private int sinceRecompute;
+    private volatile long percentileNanos;
+    
+    LatencyTracker(int capacity, double percentile, long initialNanos) {
+        this.samples = new long[capacity];
+        this.percentile = percentile;
+        this.percentileNanos = initialNanos;
+    }
+    
+    synchronized void record(long nanos) {
+        samples[next] = nanos;
+        next = (next + 1) % samples.length;
+        size = Math.min(size + 1, samples.length);
+        
+        if (++sinceRecompute >= RECOMPUTE_EVERY) {
+            sinceRecompute = 0;
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            int rank = (int) Math.ceil(percentile / 100.0 * size);
+            percentileNanos = sorted[Math.max(0, rank - 1)];
+        }
+    }
+    
+    long percentileNanos() {
+        return percentileNanos;
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.api.resilience;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.api.gax.rpc.ApiException;
+import com.google.cloud.firestore.FirestoreException;
+import com.google.common.util.concurrent.MoreExecutors;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs Firestore reads through three layers, from the inside out:
+ * <ol>
+ *   <li>Hedging: if a read has not answered after the recent p{@code hedge.percentile} latency,
+ *       a second identical read is sent and whichever answers first wins.</li>
+ *   <li>Retries: transient gRPC failures are retried with full-jitter exponential backoff.</li>
+ *   <li>Circuit breaker: when most recent reads fail, calls are rejected with
+ *       {@link CircuitOpenException} so callers can fail fast or serve cached data.</li>
+ * </ol>
+ * Every decision is published as a {@code firestore.read.*} metric.
+ */
+@Component
+public class ResilientFirestoreReader {
+    
+    private static final Logger log = LoggerFactory.getLogger(ResilientFirestoreReader.class);
+    
+    private static final Set<Status.Code> TRANSIENT_CODES = EnumSet.of(
+            Status.Code.UNAVAILABLE, Status.Code.DEADLINE_EXCEEDED, Status.Code.RESOURCE_EXHAUSTED,
+            Status.Code.ABORTED, Status.Code.INTERNAL);
+    
+    private final MeterRegistry meterRegistry;
+    private final boolean hedgeEnabled;
+    private final long minHedgeDelayNanos;
+    private final long maxHedgeDelayNanos;
+    private final int maxAttempts;
+    private final long retryBaseDelayNanos;
+    private final long retryMaxDelayNanos;
+    private final LatencyTracker latencies;
+    private final CircuitBreaker circuitBreaker;
+    // 0 closed, 1 half-open, 2 open
+    private final AtomicInteger circuitState = new AtomicInteger();
+    
+    public ResilientFirestoreReader(
+            MeterRegistry meterRegistry,
+            @Value("${app.firestore.resilience.hedge.enabled:true}") boolean hedgeEnabled,
+            @Value("${app.firestore.resilience.hedge.percentile:95}") double hedgePercentile,
+            @Value("${app.firestore.resilience.hedge.min-delay:20ms}") Duration minHedgeDelay,
+            @Value("${app.firestore.resilience.hedge.max-delay:1s}") Duration maxHedgeDelay,
+            @Value("${app.firestore.resilience.retry.max-attempts:3}") int maxAttempts,
+            @Value("${app.firestore.resilience.retry.base-delay:50ms}") Duration retryBaseDelay,
+            @Value("${app.firestore.resilience.retry.max-delay:1s}") Duration retryMaxDelay,
+            @Value("${app.firestore.resilience.circuit.window:20}") int circuitWindow,
+            @Value("${app.firestore.resilience.circuit.minimum-calls:10}") int circuitMinimumCalls,
+            @Value("${app.firestore.resilience.circuit.failure-rate:0.5}") double circuitFailureRate,
+            @Value("${app.firestore.resilience.circuit.open-duration:30s}") Duration circuitOpenDuration,
+            @Value("${app.firestore.resilience.circuit.half-open-calls:3}") int circuitHalfOpenCalls) {
+        this.meterRegistry = meterRegistry;
+        this.hedgeEnabled = hedgeEnabled;
+        this.minHedgeDelayNanos = minHedgeDelay.toNanos();
+        this.maxHedgeDelayNanos = maxHedgeDelay.toNanos();
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retryBaseDelayNanos = retryBaseDelay.toNanos();
+        this.retryMaxDelayNanos = retryMaxDelay.toNanos();
+        this.latencies = new LatencyTracker(1024, hedgePercentile, maxHedgeDelayNanos);
+        this.circuitBreaker = new CircuitBreaker(circuitWindow, circuitMinimumCalls, circuitFailureRate,
+                circuitOpenDuration.toNanos(), circuitHalfOpenCalls, this::onTransition);
+        
+        meterRegistry.gauge("firestore.read.circuit.state", circuitState);
+        meterRegistry.gauge("firestore.read.hedge.delay", this, reader -> reader.hedgeDelayNanos() / 1_000_000.0);
+    }
+    
+    /**
+     * Executes a read. {@code call} must start a new, independent request each time it is invoked,
+     * since it may be called again for hedges and retries.
+     *
+     * @throws CircuitOpenException if the circuit breaker rejects the call
+     */
+    public <T> T read(String operation, Supplier<ApiFuture<T>> call) throws ExecutionException, InterruptedException {
+        if (!circuitBreaker.tryAcquire()) {
+            meterRegistry.counter("firestore.read.circuit.rejected", "operation", operation).increment();
+            throw new CircuitOpenException(operation);
+        }
+        
+        Timer.Sample sample = Timer.start(meterRegistry);
+        boolean recorded = false;
+        try {
+            for (int attempt = 1; ; attempt++) {
+                long started = System.nanoTime();
+                try {
+                    T result = hedged(operation, call);
+                    latencies.record(System.nanoTime() - started);
+                    recorded = true;
+                    circuitBreaker.onSuccess();
+                    sample.stop(meterRegistry.timer("firestore.read.latency", "operation", operation, "outcome", "success"));
+                    return result;
+                } catch (ExecutionException e) {
+                    boolean retry = attempt < maxAttempts && isTransient(e.getCause());
+                    if (!retry) {
+                        recorded = true;
+                        circuitBreaker.onFailure();
+                        sample.stop(meterRegistry.timer("firestore.read.latency", "operation", operation, "outcome", "failure"));
+                        throw e;
+                    }
+                    meterRegistry.counter("firestore.read.retries", "operation", operation).increment();
+                    backoff(attempt);
+                }
+            }
+        } catch (RuntimeException e) {
+            // The call itself blew up, e.g. the client rejected the request before sending it
+            if (!recorded) {
+                recorded = true;
+                circuitBreaker.onFailure();
+                sample.stop(meterRegistry.timer("firestore.read.latency", "operation", operation, "outcome", "failure"));
+            }
+            throw e;
+        } finally {
+            if (!recorded) {
+                // Interrupted: says nothing about Firestore, but a half-open probe permit must not leak
+                circuitBreaker.release();
+            }
+        }
+    }
+    
+    private <T> T hedged(String operation, Supplier<ApiFuture<T>> call) throws ExecutionException, InterruptedException {
+        ApiFuture<T> primary = call.get();
+        if (!hedgeEnabled) {
+            return primary.get();
+        }
+        
+        try {
+            return primary.get(hedgeDelayNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            meterRegistry.counter("firestore.read.hedges", "operation", operation).increment();
+        }
+        
+        ApiFuture<T> hedge = call.get();
+        CompletableFuture<T> winner = new CompletableFuture<>();
+        AtomicInteger pending = new AtomicInteger(2);
+        race(primary, winner, pending, operation, "primary");
+        race(hedge, winner, pending, operation, "hedge");
+        try {
+            return winner.get();
+        } finally {
+            primary.cancel(false);
+            hedge.cancel(false);
+        }
+    }
+    
+    private <T> void race(ApiFuture<T> future, CompletableFuture<T> winner, AtomicInteger pending, String operation, String name) {
+        ApiFutures.addCallback(future, new ApiFutureCallback<>() {
+            @Override
+            public void onSuccess(T result) {
+                if (winner.complete(result)) {
+                    meterRegistry.counter("firestore.read.hedge.winner", "operation", operation, "winner", name).increment();
+                }
+            }
+            
+            @Override
+            public void onFailure(Throwable t) {
+                // Only fail once both requests have failed (or the loser was cancelled after a win)
+                if (pending.decrementAndGet() == 0) {
+                    winner.completeExceptionally(t);
+                }
+            }
+        }, MoreExecutors.directExecutor());
+    }
+    
+    private long hedgeDelayNanos() {
+        return Math.max(minHedgeDelayNanos, Math.min(maxHedgeDelayNanos, latencies.percentileNanos()));
+    }
+    
+    private void backoff(int attempt) throws InterruptedException {
+        // Full jitter: uniform in [0, min(max, base * 2^(attempt - 1))]
+        long ceiling = Math.min(retryMaxDelayNanos, retryBaseDelayNanos << Math.min(attempt - 1, 20));
+        long delay = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        TimeUnit.NANOSECONDS.sleep(delay);
+    }
+    
+    static boolean isTransient(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof FirestoreException firestoreException && firestoreException.getStatus() != null) {
+                return TRANSIENT_CODES.contains(firestoreException.getStatus().getCode());
+            }
+            if (t instanceof ApiException apiException) {
+                return apiException.isRetryable()
+                        || TRANSIENT_CODES.contains(Status.Code.valueOf(apiException.getStatusCode().getCode().name()));
+            }
+            if (t instanceof StatusRuntimeException statusException) {
+                return TRANSIENT_CODES.contains(statusException.getStatus().getCode());
+            }
+        }
+        return false;
+    }
+    
+    private void onTransition(CircuitBreaker.State from, CircuitBreaker.State to) {
+        circuitState.set(to.ordinal());
+        meterRegistry.counter("firestore.read.circuit.transitions", "to", to.name()).increment();
+        if (to == CircuitBreaker.State.OPEN) {
+            log.warn("Firestore read circuit opened (was {})", from);
+        } else {
+            log.info("Firestore read circuit {} (was {})", to, from);
+        }
+    }
+}
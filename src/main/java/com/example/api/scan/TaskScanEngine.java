@@ -0,0 +1,256 @@
+package com.example.api.scan;
+
+import com.example.api.model.TaskNoSQL;
+import com.example.api.repository.TaskPartition;
+import com.example.api.repository.TaskRepositoryNoSQL;
+import com.example.api.tenant.TenantContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Full-collection scans split into document-id partitions (Firestore partition queries) that
+ * are read concurrently on a bounded pool. Each worker converts its own pages, and results are
+ * handed back on the calling thread in document-id order, the same order as a sequential scan.
+ *
+ * <p>The collection is split into {@code partitions-per-thread} times as many partitions as there
+ * are threads, so one slow range does not leave the other threads idle. Workers read at most
+ * {@code buffered-pages} ahead of the consumer, which keeps streaming callers such as export
+ * bounded in memory. If the collection cannot be partitioned the scan falls back to a single
+ * sequential stream.
+ *
+ * <p>Workers give up and fail the scan once the consumer has taken no page, from any partition,
+ * for {@code consumer-timeout}, so a stalled consumer holds threads for a bounded time. A worker
+ * that is merely waiting for the consumer to reach its partition does not time out. Scans that feed a client
+ * ({@link #streamPages}) run on their own {@code stream-parallelism} pool, so slow clients can
+ * only hold up each other and never the scans behind list requests and index builds.
+ */
+@Component
+public class TaskScanEngine {
+    
+    private static final Logger log = LoggerFactory.getLogger(TaskScanEngine.class);
+    
+    // Marks the end of a partition; compared by identity
+    private static final List<TaskNoSQL> END = new ArrayList<>();
+    
+    @Autowired
+    private TaskRepositoryNoSQL taskRepository;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${app.tasks.scan.parallelism:8}")
+    private int parallelism;
+    
+    @Value("${app.tasks.scan.partitions-per-thread:4}")
+    private int partitionsPerThread;
+    
+    @Value("${app.tasks.scan.page-size:500}")
+    private int pageSize;
+    
+    @Value("${app.tasks.scan.buffered-pages:2}")
+    private int bufferedPages;
+    
+    @Value("${app.tasks.scan.stream-parallelism:4}")
+    private int streamParallelism;
+    
+    @Value("${app.tasks.scan.consumer-timeout:60s}")
+    private Duration consumerTimeout;
+    
+    private ExecutorService pool;
+    
+    private ExecutorService streamPool;
+    
+    @PostConstruct
+    void start() {
+        pool = newPool(parallelism, "task-scan-");
+        streamPool = newPool(streamParallelism, "task-stream-");
+    }
+    
+    @PreDestroy
+    void stop() {
+        pool.shutdownNow();
+        streamPool.shutdownNow();
+    }
+    
+    private static ExecutorService newPool(int size, String namePrefix) {
+        AtomicInteger threads = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(1, size), runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+    
+    /**
+     * Reads every task of the current tenant, in document-id order.
+     */
+    public List<TaskNoSQL> findAll() throws ExecutionException, InterruptedException {
+        List<TaskNoSQL> tasks = new ArrayList<>();
+        forEachPage(pageSize, tasks::addAll);
+        return tasks;
+    }
+    
+    /**
+     * Hands every page of the current tenant's tasks to {@code pageConsumer} on the calling
+     * thread, in document-id order. A consumer exception stops the scan and is rethrown.
+     */
+    public void forEachPage(int pageSize, Consumer<List<TaskNoSQL>> pageConsumer) throws ExecutionException, InterruptedException {
+        forEachPage(pool, pageSize, pageConsumer);
+    }
+    
+    /**
+     * Like {@link #forEachPage}, for consumers that write each page to a client and so go only as
+     * fast as the client reads. Runs on the separate stream pool.
+     */
+    public void streamPages(int pageSize, Consumer<List<TaskNoSQL>> pageConsumer) throws ExecutionException, InterruptedException {
+        forEachPage(streamPool, pageSize, pageConsumer);
+    }
+    
+    private void forEachPage(ExecutorService executor, int pageSize, Consumer<List<TaskNoSQL>> pageConsumer)
+            throws ExecutionException, InterruptedException {
+        String tenant = TenantContext.current();
+        long started = System.nanoTime();
+        // When the consumer last took a page; workers measure stalls against this, not their own wait
+        AtomicLong lastTake = new AtomicLong(started);
+        List<PartitionReader> readers = new ArrayList<>();
+        for (TaskPartition partition : partitions()) {
+            PartitionReader reader = new PartitionReader(partition, pageSize, tenant, lastTake);
+            reader.future = executor.submit(reader);
+            readers.add(reader);
+        }
+        
+        long scanned = 0;
+        try {
+            // Partitions are submitted in order, so the one being drained is always running or done
+            for (PartitionReader reader : readers) {
+                for (List<TaskNoSQL> page = reader.take(); page != null; page = reader.take()) {
+                    pageConsumer.accept(page);
+                    scanned += page.size();
+                }
+            }
+        } finally {
+            readers.forEach(reader -> reader.future.cancel(true));
+        }
+        
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        meterRegistry.timer("tasks.scan", "tenant", tenant).record(Duration.ofMillis(elapsedMs));
+        meterRegistry.counter("tasks.scan.documents", "tenant", tenant).increment(scanned);
+        log.debug("Scanned {} tasks in {} partitions in {} ms", scanned, readers.size(), elapsedMs);
+    }
+    
+    private List<TaskPartition> partitions() throws InterruptedException {
+        if (parallelism <= 1) {
+            return List.of(taskRepository::forEachPage);
+        }
+        try {
+            return taskRepository.partitions(parallelism * Math.max(1, partitionsPerThread));
+        } catch (ExecutionException | RuntimeException e) {
+            meterRegistry.counter("tasks.scan.partition.fallback").increment();
+            log.warn("Could not partition the task collection, scanning sequentially: {}", e.getMessage());
+            return List.of(taskRepository::forEachPage);
+        }
+    }
+    
+    private class PartitionReader implements Callable<Void> {
+        
+        private final TaskPartition partition;
+        private final int pageSize;
+        private final String tenant;
+        private final AtomicLong lastTake;
+        private final BlockingQueue<List<TaskNoSQL>> pages = new LinkedBlockingQueue<>(Math.max(1, bufferedPages) + 1);
+        private Future<Void> future;
+        private volatile boolean stalled;
+        
+        PartitionReader(TaskPartition partition, int pageSize, String tenant, AtomicLong lastTake) {
+            this.partition = partition;
+            this.pageSize = pageSize;
+            this.tenant = tenant;
+            this.lastTake = lastTake;
+        }
+        
+        @Override
+        public Void call() throws Exception {
+            try (TenantContext.Scope scope = TenantContext.open(tenant)) {
+                partition.forEachPage(pageSize, this::put);
+                return null;
+            } finally {
+                // Always unblocks the consumer; a failure then surfaces through the future
+                if (stalled || !offer(END)) {
+                    // The consumer is stuck; drop the read-ahead so the end marker fits
+                    pages.clear();
+                    pages.offer(END);
+                    if (!stalled) {
+                        throw stalled();
+                    }
+                }
+            }
+        }
+        
+        /**
+         * @return the next page, or null once the partition is exhausted
+         */
+        List<TaskNoSQL> take() throws ExecutionException, InterruptedException {
+            List<TaskNoSQL> page = pages.take();
+            lastTake.set(System.nanoTime());
+            if (page == END) {
+                future.get();
+                return null;
+            }
+            return page;
+        }
+        
+        private void put(List<TaskNoSQL> page) {
+            try {
+                if (!offer(page)) {
+                    throw stalled();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Task scan cancelled");
+            }
+        }
+        
+        /**
+         * Waits for queue space until the consumer has taken nothing for {@code consumer-timeout}.
+         */
+        private boolean offer(List<TaskNoSQL> page) throws InterruptedException {
+            while (true) {
+                long remaining = consumerTimeout.toNanos() - (System.nanoTime() - lastTake.get());
+                if (remaining <= 0) {
+                    return false;
+                }
+                if (pages.offer(page, remaining, TimeUnit.NANOSECONDS)) {
+                    return true;
+                }
+            }
+        }
+        
+        private CancellationException stalled() {
+            stalled = true;
+            meterRegistry.counter("tasks.scan.stalled", "tenant", tenant).increment();
+            return new CancellationException("Task scan consumer took no page for " + consumerTimeout);
+        }
+    }
+}
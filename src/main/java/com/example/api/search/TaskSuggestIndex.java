@@ -0,0 +1,436 @@
+package com.example.api.search;
+
+import com.example.api.model.TaskNoSQL;
+import com.example.api.model.TaskSuggestion;
+import com.example.api.model.TaskTombstone;
+import com.example.api.repository.TaskRepositoryNoSQL;
+import com.example.api.scan.TaskScanEngine;
+import com.example.api.snapshot.TaskReplicaLoadedEvent;
+import com.example.api.snapshot.TaskSnapshotService;
+import com.example.api.tenant.TenantContext;
+import com.google.cloud.Timestamp;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory prefix index over task titles for typeahead, one per tenant.
+ *
+ * <p>Titles are normalized (trimmed, lower-cased, whitespace collapsed) and kept in a sorted
+ * skip list keyed by {@code title + '\0' + id}, so every title starting with a prefix is one
+ * contiguous range. A lookup scans at most {@code max-scan} entries of that range and keeps the
+ * best {@code limit} by status (in-progress, pending, completed, cancelled) and then recency.
+ * When more titles than that match, only the alphabetically first {@code max-scan} are ranked, so
+ * a better match further along is missed until the prefix gets longer; such lookups are counted in
+ * {@code tasks.suggest.truncated}.
+ *
+ * <p>The default tenant's index is seeded at startup (from the warm-start replica when snapshots
+ * are enabled, otherwise by one scan of its collection); other tenants are seeded on first use.
+ * If the replica fails to load or is not ready within {@code replica-wait}, the index is seeded by
+ * a scan instead. Indexes are kept current by local writes and poll Firestore for tasks changed by
+ * other instances every {@code refresh-interval}. Each poll re-reads {@code refresh-overlap}
+ * before its watermark, because {@code firestoreUpdatedAt} is stamped by each instance's own
+ * clock and a write can commit after a later-stamped one was already seen.
+ */
+@Component
+public class TaskSuggestIndex {
+    
+    private static final Logger log = LoggerFactory.getLogger(TaskSuggestIndex.class);
+    
+    private static final char SEPARATOR = '\0';
+    
+    // Rough per-entry overhead in bytes: three String headers, the entry, a skip-list node with its
+    // share of index nodes, and the id map node. Character data is added per entry.
+    private static final int ENTRY_OVERHEAD_BYTES = 3 * 40 + 32 + 36 + 40;
+    
+    private static final Comparator<Entry> RANKING = Comparator
+            .comparingInt(Entry::statusRank)
+            .thenComparing(Comparator.comparingLong(Entry::updatedAtSeconds).reversed())
+            .thenComparing(Entry::title);
+    
+    @Autowired
+    private TaskRepositoryNoSQL taskRepository;
+    
+    @Autowired
+    private TaskScanEngine scanEngine;
+    
+    @Autowired
+    private ObjectProvider<TaskSnapshotService> snapshotService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${app.tasks.suggest.default-limit:10}")
+    private int defaultLimit;
+    
+    @Value("${app.tasks.suggest.max-limit:50}")
+    private int maxLimit;
+    
+    @Value("${app.tasks.suggest.max-scan:2000}")
+    private int maxScan;
+    
+    @Value("${app.tasks.suggest.page-size:500}")
+    private int pageSize;
+    
+    @Value("${app.tasks.suggest.refresh-overlap:60s}")
+    private Duration refreshOverlap;
+    
+    @Value("${app.tasks.suggest.replica-wait:30s}")
+    private Duration replicaWait;
+    
+    private final Map<String, Titles> tenants = new ConcurrentHashMap<>();
+    private volatile boolean started;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedOnStartup() {
+        started = true;
+        try (TenantContext.Scope scope = TenantContext.open(TenantContext.DEFAULT_TENANT)) {
+            titles();
+        }
+        tenants.values().forEach(this::seedAsync);
+    }
+    
+    @EventListener
+    public void onReplicaLoaded(TaskReplicaLoadedEvent event) {
+        // The warm-start replica only covers the default tenant
+        try (TenantContext.Scope scope = TenantContext.open(TenantContext.DEFAULT_TENANT)) {
+            long started = System.nanoTime();
+            Titles titles = titles();
+            Timestamp newWatermark = Timestamp.MIN_VALUE;
+            for (TaskNoSQL task : event.tasks()) {
+                titles.put(task);
+                if (task.getFirestoreUpdatedAt() != null && task.getFirestoreUpdatedAt().compareTo(newWatermark) > 0) {
+                    newWatermark = task.getFirestoreUpdatedAt();
+                }
+            }
+            titles.markSeeded(newWatermark, "replica", started);
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${app.tasks.suggest.refresh-interval:PT30S}", initialDelayString = "${app.tasks.suggest.refresh-interval:PT30S}")
+    public void refresh() {
+        for (Titles titles : tenants.values()) {
+            if (!titles.seeded) {
+                continue;
+            }
+            try (TenantContext.Scope scope = TenantContext.open(titles.tenant)) {
+                titles.refresh();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.warn("Task suggest index refresh failed for tenant {}: {}", titles.tenant, e.getMessage());
+            }
+        }
+    }
+    
+    /**
+     * Returns up to {@code limit} of the current tenant's tasks whose title starts with
+     * {@code prefix}, ignoring case, ranked among the first {@code max-scan} matches.
+     */
+    public List<TaskSuggestion> suggest(String prefix, Integer limit) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Titles titles = titles();
+        int k = limit == null || limit <= 0 ? defaultLimit : Math.min(limit, maxLimit);
+        List<TaskSuggestion> suggestions = titles.suggest(normalize(prefix), k);
+        sample.stop(meterRegistry.timer("tasks.suggest.latency", "tenant", titles.tenant));
+        return suggestions;
+    }
+    
+    public void put(TaskNoSQL task) {
+        titles().put(task);
+    }
+    
+    public void putAll(Collection<TaskNoSQL> tasks) {
+        Titles titles = titles();
+        tasks.forEach(titles::put);
+    }
+    
+    public void remove(String id) {
+        titles().remove(id);
+    }
+    
+    public int size() {
+        return titles().size();
+    }
+    
+    public boolean isSeeded() {
+        return titles().seeded;
+    }
+    
+    /**
+     * Drops a tenant's index and builds it again from Firestore, e.g. after its data was migrated.
+     */
+    public void rebuild(String tenant) {
+        try (TenantContext.Scope scope = TenantContext.open(tenant)) {
+            Titles titles = titles();
+            titles.clear();
+            if (started) {
+                seedAsync(titles);
+            }
+        }
+    }
+    
+    private Titles titles() {
+        String tenant = TenantContext.current();
+        Titles titles = tenants.get(tenant);
+        if (titles != null) {
+            return titles;
+        }
+        
+        Titles created = new Titles(tenant);
+        titles = tenants.putIfAbsent(tenant, created);
+        if (titles != null) {
+            return titles;
+        }
+        Tags tags = Tags.of("tenant", tenant);
+        meterRegistry.gauge("tasks.suggest.entries", tags, created, Titles::size);
+        meterRegistry.gauge("tasks.suggest.memory.bytes", tags, created.estimatedBytes);
+        meterRegistry.gauge("tasks.suggest.memory.bytes.per.title", tags, created, Titles::bytesPerTitle);
+        if (started) {
+            seedAsync(created);
+        }
+        return created;
+    }
+    
+    private void seedAsync(Titles titles) {
+        if (!titles.seeding.compareAndSet(false, true)) {
+            return;
+        }
+        TaskSnapshotService snapshot = snapshotService.getIfAvailable();
+        // The default tenant normally waits for TaskReplicaLoadedEvent instead of scanning
+        TaskSnapshotService replica = TenantContext.DEFAULT_TENANT.equals(titles.tenant) && snapshot != null && !snapshot.isLoaded()
+                ? snapshot : null;
+        Thread seeder = new Thread(() -> {
+            try (TenantContext.Scope scope = TenantContext.open(titles.tenant)) {
+                if (replica != null && awaitReplica(titles, replica)) {
+                    return;
+                }
+                titles.seedFromScan();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.error("Could not build task suggest index for tenant {}", titles.tenant, e);
+            }
+        }, "task-suggest-seeder-" + titles.tenant);
+        seeder.setDaemon(true);
+        seeder.start();
+    }
+    
+    /**
+     * @return true if the index was seeded from the replica, false if it failed or took too long
+     */
+    private boolean awaitReplica(Titles titles, TaskSnapshotService replica) throws InterruptedException {
+        long deadline = System.nanoTime() + replicaWait.toNanos();
+        while (!titles.seeded && !replica.hasFailed() && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(100);
+        }
+        if (titles.seeded) {
+            return true;
+        }
+        log.warn("Task replica {} for the suggest index, seeding tenant {} from a full scan",
+                replica.hasFailed() ? "failed to load" : "not ready after " + replicaWait, titles.tenant);
+        return false;
+    }
+    
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+    
+    private class Titles {
+        
+        private final String tenant;
+        private final ConcurrentSkipListMap<String, Entry> byTitle = new ConcurrentSkipListMap<>();
+        private final Map<String, String> keysById = new ConcurrentHashMap<>();
+        private final AtomicLong estimatedBytes = new AtomicLong();
+        private final AtomicBoolean seeding = new AtomicBoolean();
+        private volatile Timestamp watermark;
+        private volatile boolean seeded;
+        
+        Titles(String tenant) {
+            this.tenant = tenant;
+        }
+        
+        List<TaskSuggestion> suggest(String from, int k) {
+            // Worst-ranked candidate at the head so it can be dropped cheaply
+            PriorityQueue<Entry> best = new PriorityQueue<>(k + 1, RANKING.reversed());
+            int scanned = 0;
+            for (Entry entry : byTitle.tailMap(from).values()) {
+                if (!entry.key().startsWith(from)) {
+                    break;
+                }
+                if (scanned++ >= maxScan) {
+                    meterRegistry.counter("tasks.suggest.truncated", "tenant", tenant).increment();
+                    break;
+                }
+                best.offer(entry);
+                if (best.size() > k) {
+                    best.poll();
+                }
+            }
+            
+            List<Entry> ranked = new ArrayList<>(best);
+            ranked.sort(RANKING);
+            List<TaskSuggestion> suggestions = new ArrayList<>(ranked.size());
+            for (Entry entry : ranked) {
+                suggestions.add(new TaskSuggestion(entry.id(), entry.title(), entry.status()));
+            }
+            return suggestions;
+        }
+        
+        void put(TaskNoSQL task) {
+            if (task.getId() == null || task.getTitle() == null) {
+                return;
+            }
+            long updatedAt = task.getFirestoreUpdatedAt() != null ? task.getFirestoreUpdatedAt().getSeconds() : 0;
+            Entry entry = new Entry(normalize(task.getTitle()) + SEPARATOR + task.getId(),
+                    task.getId(), task.getTitle(), task.getStatus(), updatedAt);
+            
+            synchronized (this) {
+                String previousKey = keysById.get(task.getId());
+                if (previousKey != null) {
+                    Entry previous = byTitle.get(previousKey);
+                    // A scan or poll can deliver an older copy than a local write already applied
+                    if (previous != null && previous.updatedAtSeconds() > updatedAt) {
+                        return;
+                    }
+                    remove(task.getId());
+                }
+                byTitle.put(entry.key(), entry);
+                keysById.put(entry.id(), entry.key());
+                estimatedBytes.addAndGet(entry.estimatedBytes());
+            }
+        }
+        
+        synchronized void remove(String id) {
+            String key = keysById.remove(id);
+            if (key == null) {
+                return;
+            }
+            Entry removed = byTitle.remove(key);
+            if (removed != null) {
+                estimatedBytes.addAndGet(-removed.estimatedBytes());
+            }
+        }
+        
+        int size() {
+            return keysById.size();
+        }
+        
+        synchronized void clear() {
+            seeded = false;
+            seeding.set(false);
+            byTitle.clear();
+            keysById.clear();
+            estimatedBytes.set(0);
+        }
+        
+        double bytesPerTitle() {
+            int size = keysById.size();
+            return size == 0 ? 0 : (double) estimatedBytes.get() / size;
+        }
+        
+        void seedFromScan() throws ExecutionException, InterruptedException {
+            long started = System.nanoTime();
+            // Anything written while the scan runs is picked up by the next refresh
+            Timestamp scanStarted = Timestamp.now();
+            scanEngine.forEachPage(pageSize, page -> page.forEach(this::put));
+            markSeeded(scanStarted, "full scan", started);
+        }
+        
+        void refresh() throws ExecutionException, InterruptedException {
+            // Re-applying the overlap is harmless: put() ignores copies older than the indexed one
+            Timestamp from = Timestamp.ofTimeSecondsAndNanos(
+                    Math.max(0, watermark.getSeconds() - refreshOverlap.getSeconds()), watermark.getNanos());
+            // Deletions first, so the updates below win for anything written after its tombstone
+            Timestamp deletedUntil = removeDeleted(from);
+            Timestamp newWatermark = watermark;
+            String afterId = null;
+            while (true) {
+                List<TaskNoSQL> page = taskRepository.findUpdatedAfter(from, afterId, pageSize);
+                for (TaskNoSQL task : page) {
+                    put(task);
+                    if (task.getFirestoreUpdatedAt().compareTo(newWatermark) > 0) {
+                        newWatermark = task.getFirestoreUpdatedAt();
+                    }
+                }
+                if (page.size() < pageSize) {
+                    break;
+                }
+                TaskNoSQL last = page.get(page.size() - 1);
+                from = last.getFirestoreUpdatedAt();
+                afterId = last.getId();
+            }
+            watermark = deletedUntil.compareTo(newWatermark) > 0 ? deletedUntil : newWatermark;
+        }
+        
+        private Timestamp removeDeleted(Timestamp from) throws ExecutionException, InterruptedException {
+            String afterId = null;
+            while (true) {
+                List<TaskTombstone> page = taskRepository.findDeletedAfter(from, afterId, pageSize);
+                page.forEach(tombstone -> remove(tombstone.id()));
+                if (!page.isEmpty()) {
+                    TaskTombstone last = page.get(page.size() - 1);
+                    from = last.deletedAt();
+                    afterId = last.id();
+                }
+                if (page.size() < pageSize) {
+                    return from;
+                }
+            }
+        }
+        
+        void markSeeded(Timestamp newWatermark, String source, long startedNanos) {
+            watermark = newWatermark;
+            seeded = true;
+            log.info("Task suggest index for tenant {} built from {}: {} titles, ~{} bytes per title in {} ms",
+                    tenant, source, size(), Math.round(bytesPerTitle()), (System.nanoTime() - startedNanos) / 1_000_000);
+        }
+    }
+    
+    private record Entry(String key, String id, String title, TaskNoSQL.TaskStatus status, long updatedAtSeconds) {
+        
+        int statusRank() {
+            if (status == null) {
+                return Integer.MAX_VALUE;
+            }
+            return switch (status) {
+                case IN_PROGRESS -> 0;
+                case PENDING -> 1;
+                case COMPLETED -> 2;
+                case CANCELLED -> 3;
+            };
+        }
+        
+        long estimatedBytes() {
+            return ENTRY_OVERHEAD_BYTES + key.length() + id.length() + title.length();
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.api.service;
+
+/**
+ * Thrown when a delta-sync token is older than the tombstone retention, so deletions the client
+ * has not seen may already be gone; the client has to start over with a full sync.
+ */
+public class SyncTokenExpiredException extends RuntimeException {
+    
+    public SyncTokenExpiredException() {
+        super("Sync token has expired; start a full sync without a token");
+    }
+}
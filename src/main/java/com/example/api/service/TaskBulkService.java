@@ -0,0 +1,243 @@
+package com.example.api.service;
+
+import com.example.api.model.TaskNoSQL;
+import com.example.api.repository.TaskBulkWriter;
+import com.example.api.repository.TaskRepositoryNoSQL;
+import com.example.api.scan.TaskScanEngine;
+import com.example.api.search.TaskSuggestIndex;
+import com.example.api.tenant.TenantContext;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * NDJSON bulk import and export of tasks. Both directions stream one record at a time,
+ * so memory use is independent of the number of tasks processed.
+ */
+@Service
+public class TaskBulkService {
+    
+    private static final Logger log = LoggerFactory.getLogger(TaskBulkService.class);
+    
+    private static final byte[] NEWLINE = "\n".getBytes(StandardCharsets.UTF_8);
+    
+    @Autowired
+    private TaskRepositoryNoSQL taskRepository;
+    
+    @Autowired
+    private TaskSuggestIndex suggestIndex;
+    
+    @Autowired
+    private TaskScanEngine scanEngine;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private Validator validator;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${app.tasks.bulk.max-in-flight:500}")
+    private int maxInFlight;
+    
+    @Value("${app.tasks.bulk.export-page-size:500}")
+    private int exportPageSize;
+    
+    @Value("${app.tasks.bulk.progress-interval:10000}")
+    private long progressInterval;
+    
+    @Value("${app.tasks.bulk.max-reported-errors:100}")
+    private int maxReportedErrors;
+    
+    @Value("${app.tasks.bulk.max-line-length:65536}")
+    private int maxLineLength;
+    
+    @PostConstruct
+    void validate() {
+        if (progressInterval <= 0) {
+            throw new IllegalStateException("app.tasks.bulk.progress-interval must be positive, was " + progressInterval);
+        }
+    }
+    
+    public Map<String, Object> importTasks(InputStream input) throws IOException, ExecutionException, InterruptedException {
+        ObjectReader reader = objectMapper.readerFor(TaskNoSQL.class);
+        String tenant = TenantContext.current();
+        Counter invalidCounter = meterRegistry.counter("tasks.import.records", "tenant", tenant, "outcome", "invalid");
+        List<String> errors = new ArrayList<>();
+        long lineNumber = 0;
+        long received = 0;
+        long invalid = 0;
+        long started = System.nanoTime();
+        TaskBulkWriter writer = taskRepository.bulkWriter(maxInFlight, suggestIndex::put);
+        
+        try (BufferedReader lines = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            StringBuilder buffer = new StringBuilder();
+            while (readLine(lines, buffer)) {
+                lineNumber++;
+                String line = buffer.toString();
+                if (line.isBlank()) {
+                    continue;
+                }
+                received++;
+                
+                String error;
+                TaskNoSQL task = null;
+                if (line.length() > maxLineLength) {
+                    error = "line longer than " + maxLineLength + " characters";
+                } else {
+                    try {
+                        task = reader.readValue(line);
+                        error = validate(task);
+                    } catch (JsonProcessingException e) {
+                        error = "malformed JSON: " + e.getOriginalMessage();
+                    }
+                }
+                
+                if (error != null) {
+                    invalid++;
+                    invalidCounter.increment();
+                    if (errors.size() < maxReportedErrors) {
+                        errors.add("line " + lineNumber + ": " + error);
+                    }
+                } else {
+                    writer.write(task);
+                }
+                
+                if (received % progressInterval == 0) {
+                    log.info("Import progress: {} records read, {} written, {} invalid, {} records/s",
+                            received, writer.getSucceededCount(), invalid, throughput(received, started));
+                }
+            }
+        } finally {
+            writer.close();
+        }
+        
+        long imported = writer.getSucceededCount();
+        long failed = writer.getFailedCount();
+        meterRegistry.counter("tasks.import.records", "tenant", tenant, "outcome", "imported").increment(imported);
+        meterRegistry.counter("tasks.import.records", "tenant", tenant, "outcome", "failed").increment(failed);
+        log.info("Import finished: {} records read, {} imported, {} invalid, {} failed in {} ms",
+                received, imported, invalid, failed, elapsedMillis(started));
+        
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("received", received);
+        summary.put("imported", imported);
+        summary.put("invalid", invalid);
+        summary.put("failed", failed);
+        summary.put("elapsedMs", elapsedMillis(started));
+        summary.put("recordsPerSecond", throughput(received, started));
+        summary.put("errors", errors);
+        return summary;
+    }
+    
+    public void exportTasks(OutputStream output) throws ExecutionException, InterruptedException {
+        ObjectWriter writer = objectMapper.writerFor(TaskNoSQL.class);
+        Counter exportedCounter = meterRegistry.counter("tasks.export.records", "tenant", TenantContext.current());
+        AtomicLong exported = new AtomicLong();
+        long started = System.nanoTime();
+        
+        scanEngine.streamPages(exportPageSize, page -> {
+            try {
+                for (TaskNoSQL task : page) {
+                    output.write(writer.writeValueAsBytes(task));
+                    output.write(NEWLINE);
+                }
+                output.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            
+            exportedCounter.increment(page.size());
+            long total = exported.addAndGet(page.size());
+            if (total / progressInterval != (total - page.size()) / progressInterval) {
+                log.info("Export progress: {} records written, {} records/s", total, throughput(total, started));
+            }
+        });
+        
+        log.info("Export finished: {} records in {} ms, {} records/s",
+                exported.get(), elapsedMillis(started), throughput(exported.get(), started));
+    }
+    
+    /**
+     * Reads the next line into {@code line}, without a trailing {@code '\r'}. At most
+     * {@code max-line-length + 1} characters are kept, so an overlong line is detectable without
+     * buffering it; the rest of it is skipped.
+     *
+     * @return false once the input is exhausted
+     */
+    private boolean readLine(Reader in, StringBuilder line) throws IOException {
+        line.setLength(0);
+        int c = in.read();
+        if (c == -1) {
+            return false;
+        }
+        // A '\r' is only kept once another character follows it, so it never counts toward the limit
+        boolean carriageReturn = false;
+        for (; c != -1 && c != '\n'; c = in.read()) {
+            if (carriageReturn) {
+                append(line, '\r');
+            }
+            carriageReturn = c == '\r';
+            if (!carriageReturn) {
+                append(line, (char) c);
+            }
+        }
+        return true;
+    }
+    
+    private void append(StringBuilder line, char c) {
+        if (line.length() <= maxLineLength) {
+            line.append(c);
+        }
+    }
+    
+    private String validate(TaskNoSQL task) {
+        Set<ConstraintViolation<TaskNoSQL>> violations = validator.validate(task);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+    
+    private static long elapsedMillis(long startedNanos) {
+        return (System.nanoTime() - startedNanos) / 1_000_000;
+    }
+    
+    private static long throughput(long records, long startedNanos) {
+        long elapsedNanos = Math.max(1, System.nanoTime() - startedNanos);
+        return records * 1_000_000_000L / elapsedNanos;
+    }
+}
@@ -1,12 +1,25 @@
 package com.example.api.service;
 
+import com.example.api.model.TaskList;
 import com.example.api.model.TaskNoSQL;
+import com.example.api.model.TaskSuggestion;
 import com.example.api.repository.TaskRepositoryNoSQL;
+import com.example.api.scan.TaskScanEngine;
+import com.example.api.search.TaskSuggestIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 import java.util.concurrent.ExecutionException;
 
 @Service
@@ -15,16 +28,78 @@ public class TaskNoSQLService {
     @Autowired
     private TaskRepositoryNoSQL taskRepository;
     
-    public List<TaskNoSQL> getAllTasks() throws ExecutionException, InterruptedException {
-        return taskRepository.findAll();
+    @Autowired
+    private TaskSuggestIndex suggestIndex;
+    
+    @Autowired
+    private TaskScanEngine scanEngine;
+    
+    @Value("${app.tasks.lookup.max-ids:500}")
+    private int maxLookupIds;
+    
+    // The archive only grows, so list and search requests read it one page at a time
+    @Value("${app.tasks.archive.max-read:1000}")
+    private int maxArchivedRead;
+    
+    /**
+     * @param includeArchived also return tasks the archiver moved out of the working set, one
+     *                        page of {@code app.tasks.archive.max-read} at a time
+     * @param archiveAfter    cursor from a previous response; returns only the next archive page
+     */
+    public TaskList getAllTasks(boolean includeArchived, String archiveAfter) throws ExecutionException, InterruptedException {
+        if (archiveAfter != null) {
+            return archivePage(List.of(), null, archiveAfter, task -> true);
+        }
+        List<TaskNoSQL> tasks = scanEngine.findAll();
+        return includeArchived ? archivePage(tasks, null, null, task -> true) : TaskList.of(tasks);
     }
     
-    public Optional<TaskNoSQL> getTaskById(String id) throws ExecutionException, InterruptedException {
-        return taskRepository.findById(id);
+    public Optional<TaskNoSQL> getTaskById(String id, boolean includeArchived) throws ExecutionException, InterruptedException {
+        Optional<TaskNoSQL> task = taskRepository.findById(id);
+        if (task.isPresent() || !includeArchived) {
+            return task;
+        }
+        return taskRepository.findArchivedById(List.of(id)).stream().findFirst();
+    }
+    
+    /**
+     * Resolves a list of ids with a single batched read. Duplicate ids are collapsed;
+     * the returned tasks keep the order in which ids were first requested.
+     */
+    public Map<String, Object> lookupTasks(List<String> ids, boolean includeArchived) throws ExecutionException, InterruptedException {
+        List<String> uniqueIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        if (uniqueIds.size() > maxLookupIds) {
+            throw new IllegalArgumentException("At most " + maxLookupIds + " ids can be looked up at once");
+        }
+        
+        Map<String, TaskNoSQL> found = taskRepository.findAllById(uniqueIds).stream()
+                .collect(Collectors.toMap(TaskNoSQL::getId, Function.identity(), (first, second) -> first));
+        if (includeArchived && found.size() < uniqueIds.size()) {
+            List<String> missing = uniqueIds.stream().filter(id -> !found.containsKey(id)).toList();
+            taskRepository.findArchivedById(missing).forEach(task -> found.putIfAbsent(task.getId(), task));
+        }
+        
+        List<TaskNoSQL> tasks = new ArrayList<>(found.size());
+        List<String> notFound = new ArrayList<>();
+        for (String id : uniqueIds) {
+            TaskNoSQL task = found.get(id);
+            if (task != null) {
+                tasks.add(task);
+            } else {
+                notFound.add(id);
+            }
+        }
+        
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("tasks", tasks);
+        result.put("notFound", notFound);
+        return result;
     }
     
     public TaskNoSQL createTask(TaskNoSQL task) throws ExecutionException, InterruptedException {
-        return taskRepository.save(task);
+        TaskNoSQL created = taskRepository.save(task);
+        suggestIndex.put(created);
+        return created;
     }
     
     public TaskNoSQL updateTask(String id, TaskNoSQL taskDetails) throws ExecutionException, InterruptedException {
@@ -44,7 +119,9 @@ public class TaskNoSQLService {
             existingTask.setAssignee(taskDetails.getAssignee());
         }
         
-        return taskRepository.save(existingTask);
+        TaskNoSQL updated = taskRepository.save(existingTask);
+        suggestIndex.put(updated);
+        return updated;
     }
     
     public void deleteTask(String id) throws ExecutionException, InterruptedException {
@@ -52,13 +129,57 @@ public class TaskNoSQLService {
             throw new RuntimeException("Task not found with id: " + id);
         }
         taskRepository.deleteById(id);
+        suggestIndex.remove(id);
+    }
+    
+    public TaskList getTasksByStatus(TaskNoSQL.TaskStatus status, boolean includeArchived, String archiveAfter)
+            throws ExecutionException, InterruptedException {
+        if (archiveAfter != null) {
+            return archivePage(List.of(), status, archiveAfter, task -> true);
+        }
+        List<TaskNoSQL> tasks = taskRepository.findByStatus(status);
+        return includeArchived ? archivePage(tasks, status, null, task -> true) : TaskList.of(tasks);
     }
     
-    public List<TaskNoSQL> getTasksByStatus(TaskNoSQL.TaskStatus status) throws ExecutionException, InterruptedException {
-        return taskRepository.findByStatus(status);
+    /**
+     * With {@code includeArchived}, each call searches one page of the archive; a non-null
+     * {@link TaskList#nextArchiveCursor()} means the rest of the archive has not been searched yet.
+     */
+    public TaskList searchTasks(String keyword, boolean includeArchived, String archiveAfter) throws ExecutionException, InterruptedException {
+        String searchKeyword = keyword.toLowerCase();
+        Predicate<TaskNoSQL> matches = task -> (task.getTitle() != null && task.getTitle().toLowerCase().contains(searchKeyword)) ||
+                (task.getDescription() != null && task.getDescription().toLowerCase().contains(searchKeyword));
+        if (archiveAfter != null) {
+            return archivePage(List.of(), null, archiveAfter, matches);
+        }
+        List<TaskNoSQL> tasks = taskRepository.findByTitleOrDescriptionContaining(keyword);
+        return includeArchived ? archivePage(tasks, null, null, matches) : TaskList.of(tasks);
+    }
+    
+    /**
+     * Appends the matching tasks of one archive page; if a task shows up in both, the working-set
+     * copy wins. The cursor is set when the archive has more tasks after this page.
+     */
+    private TaskList archivePage(List<TaskNoSQL> tasks, TaskNoSQL.TaskStatus status, String archiveAfter, Predicate<TaskNoSQL> filter)
+            throws ExecutionException, InterruptedException {
+        // One extra task tells whether another page follows
+        List<TaskNoSQL> archived = taskRepository.findArchived(status, archiveAfter, maxArchivedRead + 1);
+        String next = null;
+        if (archived.size() > maxArchivedRead) {
+            archived = archived.subList(0, maxArchivedRead);
+            next = archived.get(archived.size() - 1).getId();
+        }
+        
+        Set<String> ids = tasks.stream().map(TaskNoSQL::getId).collect(Collectors.toSet());
+        List<TaskNoSQL> merged = new ArrayList<>(tasks);
+        archived.stream().filter(filter).filter(task -> !ids.contains(task.getId())).forEach(merged::add);
+        return new TaskList(merged, next);
     }
     
-    public List<TaskNoSQL> searchTasks(String keyword) throws ExecutionException, InterruptedException {
-        return taskRepository.findByTitleOrDescriptionContaining(keyword);
+    public List<TaskSuggestion> suggestTasks(String prefix, Integer limit) {
+        if (prefix == null || prefix.isBlank()) {
+            throw new IllegalArgumentException("prefix must not be blank");
+        }
+        return suggestIndex.suggest(prefix, limit);
     }
 }
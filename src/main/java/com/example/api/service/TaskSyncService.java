@@ -0,0 +1,159 @@
+package com.example.api.service;
+
+import com.example.api.model.TaskNoSQL;
+import com.example.api.model.TaskTombstone;
+import com.example.api.repository.TaskRepositoryNoSQL;
+import com.google.cloud.Timestamp;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delta sync for offline clients. Changes are read with two range queries on
+ * {@code firestoreUpdatedAt}, one over the tasks and one over the deletion tombstones, and merged
+ * in (time, id) order, so each call reads at most {@code limit} documents from each no matter how
+ * large the collection is.
+ *
+ * <p>The token records the position of the last change returned and the time the client has seen
+ * every change up to, which is what tombstone expiry is checked against. Changes
+ * newer than {@code settle-window} are held back until the next call: timestamps come from each
+ * instance's clock and are only visible once the write commits, so a fresh position could otherwise
+ * skip a write that lands just behind it.
+ */
+@Service
+public class TaskSyncService {
+    
+    @Autowired
+    private TaskRepositoryNoSQL taskRepository;
+    
+    @Value("${app.tasks.changes.default-limit:500}")
+    private int defaultLimit;
+    
+    @Value("${app.tasks.changes.max-limit:1000}")
+    private int maxLimit;
+    
+    @Value("${app.tasks.changes.settle-window:5s}")
+    private Duration settleWindow;
+    
+    @Value("${app.tasks.changes.tombstone-retention:30d}")
+    private Duration tombstoneRetention;
+    
+    /**
+     * @param since token from a previous call, or {@code null} to start a full sync
+     * @throws IllegalArgumentException if the token or limit is invalid
+     * @throws SyncTokenExpiredException if tombstones the client needs may have expired
+     */
+    public Map<String, Object> getChanges(String since, Integer limit) throws ExecutionException, InterruptedException {
+        int pageSize = limit == null ? defaultLimit : limit;
+        if (pageSize < 1 || pageSize > maxLimit) {
+            throw new IllegalArgumentException("limit must be between 1 and " + maxLimit);
+        }
+        Timestamp now = Timestamp.now();
+        ChangeToken from = since == null || since.isBlank() ? ChangeToken.start(now) : ChangeToken.decode(since);
+        if (from.syncedThrough() < now.getSeconds() - tombstoneRetention.getSeconds()) {
+            throw new SyncTokenExpiredException();
+        }
+        Timestamp horizon = minus(now, settleWindow);
+        
+        List<TaskNoSQL> updated = taskRepository.findUpdatedAfter(from.position(), from.id(), pageSize);
+        List<TaskTombstone> deleted = taskRepository.findDeletedAfter(from.position(), from.id(), pageSize);
+        
+        // Later changes to the same id replace earlier ones, so each id appears at most once
+        Map<String, TaskNoSQL> upserts = new LinkedHashMap<>();
+        Set<String> deletedIds = new LinkedHashSet<>();
+        Timestamp position = from.position();
+        String positionId = from.id();
+        int u = 0;
+        int d = 0;
+        int consumed = 0;
+        while (consumed < pageSize && (u < updated.size() || d < deleted.size())) {
+            TaskNoSQL task = u < updated.size() ? updated.get(u) : null;
+            TaskTombstone tombstone = d < deleted.size() ? deleted.get(d) : null;
+            boolean isUpdate = tombstone == null
+                    || (task != null && compare(task.getFirestoreUpdatedAt(), task.getId(), tombstone.deletedAt(), tombstone.id()) <= 0);
+            Timestamp at = isUpdate ? task.getFirestoreUpdatedAt() : tombstone.deletedAt();
+            if (at.compareTo(horizon) > 0) {
+                break;
+            }
+            if (isUpdate) {
+                deletedIds.remove(task.getId());
+                upserts.remove(task.getId());
+                upserts.put(task.getId(), task);
+                positionId = task.getId();
+                u++;
+            } else {
+                upserts.remove(tombstone.id());
+                deletedIds.add(tombstone.id());
+                positionId = tombstone.id();
+                d++;
+            }
+            position = at;
+            consumed++;
+        }
+        
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("tasks", upserts.values());
+        result.put("deleted", deletedIds);
+        // Fewer than a full page means both queries ran dry or reached the settle horizon
+        boolean hasMore = consumed == pageSize;
+        // A client that stops part-way has only seen up to position, except that a full sync
+        // never needs tombstones from before it started
+        long syncedThrough = hasMore ? Math.max(position.getSeconds(), from.syncedThrough()) : horizon.getSeconds();
+        result.put("token", new ChangeToken(position, positionId, syncedThrough).encode());
+        result.put("hasMore", hasMore);
+        return result;
+    }
+    
+    private static int compare(Timestamp leftAt, String leftId, Timestamp rightAt, String rightId) {
+        int compare = leftAt.compareTo(rightAt);
+        return compare != 0 ? compare : leftId.compareTo(rightId);
+    }
+    
+    private static Timestamp minus(Timestamp timestamp, Duration duration) {
+        long micros = TimeUnit.SECONDS.toMicros(timestamp.getSeconds()) + timestamp.getNanos() / 1_000;
+        return Timestamp.ofTimeMicroseconds(micros - duration.toNanos() / 1_000);
+    }
+    
+    /**
+     * Opaque to clients: {@code v1:<seconds>:<nanos>:<syncedThrough>:<id>}, base64url encoded.
+     */
+    record ChangeToken(Timestamp position, String id, long syncedThrough) {
+        
+        private static final String VERSION = "v1";
+        
+        static ChangeToken start(Timestamp now) {
+            return new ChangeToken(Timestamp.MIN_VALUE, null, now.getSeconds());
+        }
+        
+        String encode() {
+            String raw = String.join(":", VERSION, Long.toString(position.getSeconds()), Integer.toString(position.getNanos()),
+                    Long.toString(syncedThrough), id == null ? "" : id);
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+        
+        static ChangeToken decode(String token) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(":", 5);
+                if (parts.length != 5 || !VERSION.equals(parts[0])) {
+                    throw new IllegalArgumentException("Unsupported sync token");
+                }
+                Timestamp position = Timestamp.ofTimeSecondsAndNanos(Long.parseLong(parts[1]), Integer.parseInt(parts[2]));
+                return new ChangeToken(position, parts[4].isEmpty() ? null : parts[4], Long.parseLong(parts[3]));
+            } catch (IllegalArgumentException e) {
+                // Also covers malformed base64 and numbers
+                throw new IllegalArgumentException("Malformed sync token", e);
+            }
+        }
+    }
+}
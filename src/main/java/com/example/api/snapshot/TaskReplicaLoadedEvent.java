@@ -0,0 +1,12 @@
+package com.example.api.snapshot;
+
+import com.example.api.model.TaskNoSQL;
+
+import java.util.Collection;
+
+/**
+ * Published once the warm-start replica has been loaded and reconciled, so other in-memory
+ * structures can build from it instead of scanning Firestore again.
+ */
+public record TaskReplicaLoadedEvent(Collection<TaskNoSQL> tasks) {
+}
@@ -0,0 +1,157 @@
+package com.example.api.snapshot;
+
+import com.example.api.model.TaskNoSQL;
+import com.google.cloud.Timestamp;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Compact binary snapshot of converted tasks, read back through a memory-mapped buffer.
+ *
+ * <pre>
+ * header:  int magic 'TSNP' | short version | long watermarkSeconds | int watermarkNanos | int count
+ * record:  string id | string title | string description | string assignee | byte status
+ *          | timestamp createdAt | timestamp updatedAt | timestamp dueDate
+ * string:  int byteLength (-1 = null) | UTF-8 bytes
+ * timestamp: byte present | long seconds | int nanos (seconds/nanos only when present)
+ * </pre>
+ * Files are written to a temporary sibling and atomically moved into place. Reading validates
+ * counts and lengths against the file size, so a corrupt or truncated file fails with an
+ * {@link IOException} instead of a huge allocation.
+ */
+public final class TaskSnapshotFile {
+    
+    private static final int MAGIC = 0x54534E50;
+    private static final short VERSION = 1;
+    private static final TaskNoSQL.TaskStatus[] STATUSES = TaskNoSQL.TaskStatus.values();
+    private static final byte NO_STATUS = -1;
+    // Four null strings, the status byte and three absent timestamps
+    private static final int MIN_RECORD_BYTES = 4 * 4 + 1 + 3;
+    
+    public record Snapshot(Timestamp watermark, List<TaskNoSQL> tasks) {
+    }
+    
+    private TaskSnapshotFile() {
+    }
+    
+    public static void write(Path path, Timestamp watermark, Collection<TaskNoSQL> tasks) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeLong(watermark.getSeconds());
+            out.writeInt(watermark.getNanos());
+            out.writeInt(tasks.size());
+            for (TaskNoSQL task : tasks) {
+                writeString(out, task.getId());
+                writeString(out, task.getTitle());
+                writeString(out, task.getDescription());
+                writeString(out, task.getAssignee());
+                out.writeByte(task.getStatus() != null ? task.getStatus().ordinal() : NO_STATUS);
+                writeTimestamp(out, task.getFirestoreCreatedAt());
+                writeTimestamp(out, task.getFirestoreUpdatedAt());
+                writeTimestamp(out, task.getFirestoreDueDate());
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    public static Snapshot read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Not a task snapshot: " + path);
+            }
+            short version = buffer.getShort();
+            if (version != VERSION) {
+                throw new IOException("Unsupported task snapshot version " + version + ": " + path);
+            }
+            
+            Timestamp watermark = Timestamp.ofTimeSecondsAndNanos(buffer.getLong(), buffer.getInt());
+            int count = buffer.getInt();
+            if (count < 0 || count > buffer.remaining() / MIN_RECORD_BYTES) {
+                throw new IOException("Corrupt task snapshot, " + count + " records in " + buffer.remaining() + " bytes: " + path);
+            }
+            List<TaskNoSQL> tasks = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                TaskNoSQL task = new TaskNoSQL();
+                task.setId(readString(buffer));
+                task.setTitle(readString(buffer));
+                task.setDescription(readString(buffer));
+                task.setAssignee(readString(buffer));
+                byte status = buffer.get();
+                if (status < NO_STATUS || status >= STATUSES.length) {
+                    throw new IOException("Corrupt task snapshot, unknown status " + status + ": " + path);
+                }
+                task.setStatus(status != NO_STATUS ? STATUSES[status] : null);
+                task.setFirestoreCreatedAt(readTimestamp(buffer));
+                Timestamp updatedAt = readTimestamp(buffer);
+                task.setFirestoreDueDate(readTimestamp(buffer));
+                // Set last: the setters above stamp firestoreUpdatedAt with the current time
+                task.setFirestoreUpdatedAt(updatedAt);
+                tasks.add(task);
+            }
+            return new Snapshot(watermark, tasks);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated task snapshot: " + path, e);
+        }
+    }
+    
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+    
+    private static String readString(ByteBuffer buffer) throws IOException {
+        int length = buffer.getInt();
+        if (length == -1) {
+            return null;
+        }
+        if (length < 0 || length > buffer.remaining()) {
+            throw new IOException("Corrupt task snapshot, string of " + length + " bytes with " + buffer.remaining() + " left");
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    private static void writeTimestamp(DataOutputStream out, Timestamp timestamp) throws IOException {
+        out.writeBoolean(timestamp != null);
+        if (timestamp != null) {
+            out.writeLong(timestamp.getSeconds());
+            out.writeInt(timestamp.getNanos());
+        }
+    }
+    
+    private static Timestamp readTimestamp(ByteBuffer buffer) {
+        if (buffer.get() == 0) {
+            return null;
+        }
+        return Timestamp.ofTimeSecondsAndNanos(buffer.getLong(), buffer.getInt());
+    }
+}
@@ -0,0 +1,253 @@
+package com.example.api.snapshot;
+
+import com.example.api.model.TaskNoSQL;
+import com.example.api.model.TaskTombstone;
+import com.example.api.repository.TaskCache;
+import com.example.api.repository.TaskRepositoryNoSQL;
+import com.example.api.scan.TaskScanEngine;
+import com.google.cloud.Timestamp;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Keeps a local replica of the task collection and persists it to a snapshot file, so a new
+ * instance can start from the file and only fetch what changed since its watermark instead of
+ * re-reading the whole collection.
+ *
+ * <p>The replica is refreshed from Firestore and written to disk every {@code interval} and once more
+ * on shutdown. Reconciliation re-reads a small overlap before the watermark because
+ * {@code firestoreUpdatedAt} is stamped by each instance's own clock. A snapshot older than the
+ * tombstone retention is discarded in favour of a full scan, because the deletions made since
+ * may no longer be recorded.
+ */
+@Service
+@ConditionalOnProperty(prefix = "app.tasks.snapshot", name = "enabled", havingValue = "true")
+public class TaskSnapshotService {
+    
+    private static final Logger log = LoggerFactory.getLogger(TaskSnapshotService.class);
+    
+    @Autowired
+    private TaskRepositoryNoSQL taskRepository;
+    
+    @Autowired
+    private TaskCache taskCache;
+    
+    @Autowired
+    private TaskScanEngine scanEngine;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Value("${app.tasks.snapshot.path:/tmp/tasks.snapshot}")
+    private Path path;
+    
+    @Value("${app.tasks.snapshot.page-size:500}")
+    private int pageSize;
+    
+    @Value("${app.tasks.snapshot.reconcile-overlap:60s}")
+    private Duration reconcileOverlap;
+    
+    @Value("${app.tasks.changes.tombstone-retention:30d}")
+    private Duration tombstoneRetention;
+    
+    private final Map<String, TaskNoSQL> replica = new ConcurrentHashMap<>();
+    private volatile Timestamp watermark;
+    private volatile boolean loaded;
+    private volatile boolean failed;
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        Thread loader = new Thread(() -> {
+            try {
+                load();
+            } catch (InterruptedException e) {
+                failed = true;
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                failed = true;
+                log.error("Could not warm up task replica", e);
+            }
+        }, "task-snapshot-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+    
+    /**
+     * Loads the snapshot file (or scans the collection when there is none), pulls the changes
+     * made since, and primes the task cache.
+     */
+    public synchronized void load() throws ExecutionException, InterruptedException {
+        long started = System.nanoTime();
+        long stamp = taskCache.stamp();
+        String source = "snapshot";
+        if (!loadSnapshotFile()) {
+            source = "full scan";
+            fullScan();
+        }
+        int reconciled = reconcile();
+        taskCache.putAllIfUnchanged(replica.values(), stamp);
+        loaded = true;
+        
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        meterRegistry.gauge("tasks.snapshot.replica.size", replica, Map::size);
+        meterRegistry.timer("tasks.snapshot.load", "source", source).record(Duration.ofMillis(elapsedMs));
+        log.info("Task replica warmed from {}: {} tasks, {} reconciled from Firestore in {} ms",
+                source, replica.size(), reconciled, elapsedMs);
+        eventPublisher.publishEvent(new TaskReplicaLoadedEvent(replica.values()));
+    }
+    
+    @Scheduled(fixedDelayString = "${app.tasks.snapshot.interval:PT5M}", initialDelayString = "${app.tasks.snapshot.interval:PT5M}")
+    public void refreshAndWrite() {
+        if (!loaded) {
+            return;
+        }
+        try {
+            reconcile();
+            write();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("Periodic task snapshot failed: {}", e.getMessage());
+        }
+    }
+    
+    @PreDestroy
+    public void writeOnShutdown() {
+        if (!loaded) {
+            return;
+        }
+        try {
+            write();
+        } catch (IOException e) {
+            log.warn("Could not write task snapshot on shutdown: {}", e.getMessage());
+        }
+    }
+    
+    public boolean isLoaded() {
+        return loaded;
+    }
+    
+    /**
+     * True if the startup load gave up; {@link TaskReplicaLoadedEvent} will not be published.
+     */
+    public boolean hasFailed() {
+        return failed;
+    }
+    
+    public Collection<TaskNoSQL> getTasks() {
+        return replica.values();
+    }
+    
+    synchronized void write() throws IOException {
+        long started = System.nanoTime();
+        List<TaskNoSQL> tasks = new ArrayList<>(replica.values());
+        TaskSnapshotFile.write(path, watermark, tasks);
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        meterRegistry.timer("tasks.snapshot.write").record(Duration.ofMillis(elapsedMs));
+        log.info("Wrote task snapshot with {} tasks to {} in {} ms", tasks.size(), path, elapsedMs);
+    }
+    
+    private boolean loadSnapshotFile() {
+        if (!Files.isReadable(path)) {
+            return false;
+        }
+        try {
+            TaskSnapshotFile.Snapshot snapshot = TaskSnapshotFile.read(path);
+            long oldestCovered = Timestamp.now().getSeconds() - tombstoneRetention.getSeconds();
+            if (snapshot.watermark().getSeconds() - reconcileOverlap.getSeconds() < oldestCovered) {
+                meterRegistry.counter("tasks.snapshot.discarded", "reason", "expired").increment();
+                log.warn("Ignoring task snapshot {} from {}: tombstones older than {} may already be gone",
+                        path, snapshot.watermark(), tombstoneRetention);
+                return false;
+            }
+            replica.clear();
+            snapshot.tasks().forEach(task -> replica.put(task.getId(), task));
+            watermark = snapshot.watermark();
+            return true;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable task snapshot {}: {}", path, e.getMessage());
+            return false;
+        }
+    }
+    
+    private void fullScan() throws ExecutionException, InterruptedException {
+        replica.clear();
+        // Anything written while the scan runs is picked up by the reconcile that follows
+        watermark = Timestamp.now();
+        scanEngine.forEachPage(pageSize, page -> page.forEach(task -> replica.put(task.getId(), task)));
+    }
+    
+    /**
+     * Pulls tasks updated after the watermark (minus the overlap) into the replica and drops
+     * tasks deleted since then.
+     */
+    private synchronized int reconcile() throws ExecutionException, InterruptedException {
+        Timestamp from = Timestamp.ofTimeSecondsAndNanos(
+                Math.max(0, watermark.getSeconds() - reconcileOverlap.getSeconds()), watermark.getNanos());
+        // Deletions first, so the updates below win for anything written after its tombstone
+        int reconciled = removeDeleted(from);
+        Timestamp newWatermark = watermark;
+        String afterId = null;
+        
+        while (true) {
+            List<TaskNoSQL> page = taskRepository.findUpdatedAfter(from, afterId, pageSize);
+            for (TaskNoSQL task : page) {
+                replica.put(task.getId(), task);
+                if (task.getFirestoreUpdatedAt().compareTo(newWatermark) > 0) {
+                    newWatermark = task.getFirestoreUpdatedAt();
+                }
+            }
+            reconciled += page.size();
+            if (page.size() < pageSize) {
+                break;
+            }
+            TaskNoSQL last = page.get(page.size() - 1);
+            from = last.getFirestoreUpdatedAt();
+            afterId = last.getId();
+        }
+        
+        watermark = newWatermark;
+        meterRegistry.counter("tasks.snapshot.reconciled").increment(reconciled);
+        return reconciled;
+    }
+    
+    private int removeDeleted(Timestamp from) throws ExecutionException, InterruptedException {
+        String afterId = null;
+        int removed = 0;
+        while (true) {
+            List<TaskTombstone> page = taskRepository.findDeletedAfter(from, afterId, pageSize);
+            page.forEach(tombstone -> replica.remove(tombstone.id()));
+            removed += page.size();
+            if (page.size() < pageSize) {
+                return removed;
+            }
+            TaskTombstone last = page.get(page.size() - 1);
+            from = last.deletedAt();
+            afterId = last.id();
+        }
+    }
+}
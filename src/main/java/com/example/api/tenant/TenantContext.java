@@ -0,0 +1,89 @@
+package com.example.api.tenant;
+
+import java.util.regex.Pattern;
+
+/**
+ * The tenant the current thread is working for, and the Firestore collections that belong to it.
+ *
+ * <p>Requests get their tenant from {@link TenantInterceptor}. Code that hands work to another
+ * thread (streaming responses, Firestore callbacks) must capture {@link #current()} first and
+ * re-enter it there with {@link #open(String)}. Threads with no tenant work for
+ * {@link #DEFAULT_TENANT}, whose collections keep their original, unprefixed names.
+ */
+public final class TenantContext {
+    
+    public static final String DEFAULT_TENANT = "default";
+    
+    public static final String HEADER = "X-Tenant-Id";
+    
+    static final String REQUEST_ATTRIBUTE = TenantContext.class.getName() + ".tenant";
+    
+    // No underscores, so "tenant_{id}_{base}" names cannot collide across tenants or bases
+    private static final Pattern TENANT_ID = Pattern.compile("[a-z0-9][a-z0-9-]{0,39}");
+    
+    private static final String PREFIX = "tenant_";
+    
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+    
+    private TenantContext() {
+    }
+    
+    public static String current() {
+        String tenant = CURRENT.get();
+        return tenant != null ? tenant : DEFAULT_TENANT;
+    }
+    
+    public static boolean isValid(String tenant) {
+        return tenant != null && TENANT_ID.matcher(tenant).matches();
+    }
+    
+    /**
+     * Switches the current thread to {@code tenant} until the returned scope is closed.
+     */
+    public static Scope open(String tenant) {
+        if (!isValid(tenant)) {
+            throw new IllegalArgumentException("Invalid tenant id: " + tenant);
+        }
+        String previous = CURRENT.get();
+        CURRENT.set(tenant);
+        return () -> {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        };
+    }
+    
+    /**
+     * Name of the current tenant's copy of a collection, e.g. {@code tasks} or {@code tenant_acme_tasks}.
+     */
+    public static String collectionName(String base) {
+        return collectionName(current(), base);
+    }
+    
+    public static String collectionName(String tenant, String base) {
+        return DEFAULT_TENANT.equals(tenant) ? base : PREFIX + tenant + "_" + base;
+    }
+    
+    /**
+     * Inverse of {@link #collectionName(String, String)}; null if the collection is not a copy of {@code base}.
+     */
+    public static String tenantOf(String collectionName, String base) {
+        if (collectionName.equals(base)) {
+            return DEFAULT_TENANT;
+        }
+        String suffix = "_" + base;
+        if (collectionName.startsWith(PREFIX) && collectionName.endsWith(suffix)) {
+            String tenant = collectionName.substring(PREFIX.length(), collectionName.length() - suffix.length());
+            return isValid(tenant) ? tenant : null;
+        }
+        return null;
+    }
+    
+    public interface Scope extends AutoCloseable {
+        
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.api.tenant;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Binds each API request to a tenant, taken from the {@code {tenant}} path variable of
+ * {@code /api/tenants/{tenant}/...} or else the {@value TenantContext#HEADER} header.
+ * Requests with neither use the default tenant; malformed tenant ids are rejected with 400 and
+ * tenants the {@link TenantRegistry} does not know with 404, before any per-tenant state exists.
+ */
+public class TenantInterceptor implements AsyncHandlerInterceptor {
+    
+    private static final ThreadLocal<TenantContext.Scope> SCOPE = new ThreadLocal<>();
+    
+    private final TenantRegistry tenantRegistry;
+    
+    public TenantInterceptor(TenantRegistry tenantRegistry) {
+        this.tenantRegistry = tenantRegistry;
+    }
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        String tenant = resolve(request);
+        if (!TenantContext.isValid(tenant)) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Invalid tenant id");
+            return false;
+        }
+        if (!tenantRegistry.isKnown(tenant)) {
+            response.sendError(HttpStatus.NOT_FOUND.value(), "Unknown tenant");
+            return false;
+        }
+        request.setAttribute(TenantContext.REQUEST_ATTRIBUTE, tenant);
+        SCOPE.set(TenantContext.open(tenant));
+        return true;
+    }
+    
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        close();
+    }
+    
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        close();
+    }
+    
+    /**
+     * The tenant a request was bound to, for code that runs outside the handler thread.
+     */
+    public static String tenantOf(HttpServletRequest request) {
+        Object tenant = request.getAttribute(TenantContext.REQUEST_ATTRIBUTE);
+        return tenant != null ? tenant.toString() : TenantContext.DEFAULT_TENANT;
+    }
+    
+    private static String resolve(HttpServletRequest request) {
+        @SuppressWarnings("unchecked")
+        Map<String, String> pathVariables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (pathVariables != null && pathVariables.containsKey("tenant")) {
+            return pathVariables.get("tenant");
+        }
+        String header = request.getHeader(TenantContext.HEADER);
+        return header != null && !header.isBlank() ? header.trim() : TenantContext.DEFAULT_TENANT;
+    }
+    
+    private static void close() {
+        TenantContext.Scope scope = SCOPE.get();
+        if (scope != null) {
+            SCOPE.remove();
+            scope.close();
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package com.example.api.tenant;
+
+import com.example.api.model.TaskTombstone;
+import com.example.api.search.TaskSuggestIndex;
+import com.google.api.core.ApiFuture;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.BulkWriter;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Precondition;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.WriteBatch;
+import com.google.cloud.firestore.WriteResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.web.server.ConditionalOnManagementPort;
+import org.springframework.boot.actuate.autoconfigure.web.server.ManagementPortType;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Tenant administration at {@code /actuator/tenants}.
+ * <ul>
+ *   <li>{@code GET} lists tenants that have a task collection, with document counts</li>
+ *   <li>{@code POST {"source": ..., "target": ...}} copies one tenant's tasks and archived tasks
+ *       into another's collections, e.g. to move existing data out of the shared {@code tasks}
+ *       collection</li>
+ * </ul>
+ * With {@code deleteSource} each page is deleted from the source once its copy is committed.
+ * The delete is conditional on the document not having changed since it was read, so tasks
+ * updated mid-migration stay in the source and show up in {@code skipped}; run the migration
+ * again to move them. Each deleted task gets a tombstone in the same commit, so {@code /changes}
+ * clients, the snapshot and the suggest index of the source tenant drop it like any other delete.
+ *
+ * <p>The source's tombstones are not migrated: they record deletions the source's clients have
+ * to see, and the target never held those tasks. They expire in the source with its TTL policy.
+ *
+ * <p>Like {@code jfr}, the endpoint only exists when actuator runs on its own
+ * {@code management.server.port}, since the application has no authentication.
+ */
+@Component
+@Endpoint(id = "tenants")
+@ConditionalOnManagementPort(ManagementPortType.DIFFERENT)
+public class TenantMigrationEndpoint {
+    
+    private static final Logger log = LoggerFactory.getLogger(TenantMigrationEndpoint.class);
+    
+    private static final String TASKS = "tasks";
+    
+    private static final String ARCHIVE = "tasks_archive";
+    
+    private static final String TOMBSTONES = "tasks_tombstones";
+    
+    @Autowired
+    private Firestore firestore;
+    
+    @Autowired
+    private TaskSuggestIndex suggestIndex;
+    
+    @Autowired
+    private TenantRegistry tenantRegistry;
+    
+    @Value("${app.tenants.migration.page-size:500}")
+    private int pageSize;
+    
+    @Value("${app.tasks.changes.tombstone-retention:30d}")
+    private Duration tombstoneRetention;
+    
+    @ReadOperation
+    public Map<String, Object> tenants() throws ExecutionException, InterruptedException {
+        Map<String, Object> tenants = new TreeMap<>();
+        for (CollectionReference collection : firestore.listCollections()) {
+            String tenant = TenantContext.tenantOf(collection.getId(), TASKS);
+            if (tenant != null) {
+                Map<String, Object> details = new LinkedHashMap<>();
+                details.put("collection", collection.getId());
+                details.put("documents", collection.count().get().get().getCount());
+                tenants.put(tenant, details);
+            }
+        }
+        return tenants;
+    }
+    
+    /**
+     * @param source tenant to copy from; {@code default} is the original {@code tasks} collection
+     * @param target tenant to copy into
+     * @param deleteSource remove migrated documents from the source
+     */
+    @WriteOperation
+    public WebEndpointResponse<Map<String, Object>> migrate(String source, String target, @Nullable Boolean deleteSource)
+            throws ExecutionException, InterruptedException {
+        if (!TenantContext.isValid(source) || !TenantContext.isValid(target) || source.equals(target)) {
+            return new WebEndpointResponse<>(Map.of("error", "source and target must be two different valid tenant ids"),
+                    WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        boolean delete = Boolean.TRUE.equals(deleteSource);
+        long started = System.nanoTime();
+        tenantRegistry.register(target);
+        
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("source", TenantContext.collectionName(source, TASKS));
+        summary.put("target", TenantContext.collectionName(target, TASKS));
+        summary.put("tasks", move(TASKS, source, target, delete, true));
+        summary.put("archive", move(ARCHIVE, source, target, delete, false));
+        
+        suggestIndex.rebuild(target);
+        if (delete) {
+            suggestIndex.rebuild(source);
+        }
+        summary.put("elapsedMs", (System.nanoTime() - started) / 1_000_000);
+        return new WebEndpointResponse<>(summary, WebEndpointResponse.STATUS_OK);
+    }
+    
+    /**
+     * Copies one collection of {@code source} into {@code target}, deleting migrated documents
+     * when asked to; with {@code tombstone} each delete is committed together with its tombstone.
+     */
+    private Map<String, Long> move(String base, String source, String target, boolean delete, boolean tombstone)
+            throws ExecutionException, InterruptedException {
+        CollectionReference from = firestore.collection(TenantContext.collectionName(source, base));
+        CollectionReference to = firestore.collection(TenantContext.collectionName(target, base));
+        CollectionReference tombstones = firestore.collection(TenantContext.collectionName(source, TOMBSTONES));
+        long copied = 0;
+        long failed = 0;
+        long deleted = 0;
+        long skipped = 0;
+        
+        Query query = from.orderBy(FieldPath.documentId()).limit(pageSize);
+        QueryDocumentSnapshot lastDocument = null;
+        BulkWriter writer = firestore.bulkWriter();
+        try {
+            while (true) {
+                List<QueryDocumentSnapshot> documents = (lastDocument == null ? query : query.startAfter(lastDocument))
+                        .get().get().getDocuments();
+                if (documents.isEmpty()) {
+                    break;
+                }
+                
+                List<ApiFuture<WriteResult>> copies = new ArrayList<>(documents.size());
+                for (QueryDocumentSnapshot document : documents) {
+                    copies.add(writer.set(to.document(document.getId()), document.getData()));
+                }
+                writer.flush().get();
+                
+                List<ApiFuture<?>> deletes = new ArrayList<>();
+                for (int i = 0; i < documents.size(); i++) {
+                    if (!succeeded(copies.get(i))) {
+                        failed++;
+                        continue;
+                    }
+                    copied++;
+                    if (delete) {
+                        QueryDocumentSnapshot document = documents.get(i);
+                        Precondition unchanged = Precondition.updatedAt(document.getUpdateTime());
+                        if (tombstone) {
+                            // A batch per task: the tombstone must not be written if the conditional delete fails
+                            WriteBatch batch = firestore.batch();
+                            batch.delete(document.getReference(), unchanged);
+                            batch.set(tombstones.document(document.getId()),
+                                    new TaskTombstone(document.getId(), Timestamp.now()).toDocument(tombstoneRetention));
+                            deletes.add(batch.commit());
+                        } else {
+                            deletes.add(writer.delete(document.getReference(), unchanged));
+                        }
+                    }
+                }
+                writer.flush().get();
+                for (ApiFuture<?> result : deletes) {
+                    if (succeeded(result)) {
+                        deleted++;
+                    } else {
+                        skipped++;
+                    }
+                }
+                
+                log.info("Tenant migration {} -> {} ({}): {} copied, {} failed, {} deleted so far",
+                        source, target, base, copied, failed, deleted);
+                if (documents.size() < pageSize) {
+                    break;
+                }
+                lastDocument = documents.get(documents.size() - 1);
+            }
+        } finally {
+            writer.close();
+        }
+        
+        Map<String, Long> counts = new LinkedHashMap<>();
+        counts.put("copied", copied);
+        counts.put("failed", failed);
+        counts.put("deleted", deleted);
+        counts.put("skipped", skipped);
+        return counts;
+    }
+    
+    private static boolean succeeded(ApiFuture<?> result) throws InterruptedException {
+        try {
+            result.get();
+            return true;
+        } catch (ExecutionException e) {
+            log.warn("Tenant migration write failed: {}", e.getCause().getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.api.tenant;
+
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.Firestore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * The tenants this deployment serves: the default tenant, the ids listed in
+ * {@code app.tenants.allowed}, and every tenant that already has a {@code tenant_*_tasks}
+ * collection. Requests for any other tenant are rejected before they create per-tenant state
+ * (metric tags, cache keys, suggest indexes), so the number of tenants stays bounded by the data.
+ *
+ * <p>The collection list is read lazily, when an unknown id shows up, and at most once per
+ * {@code refresh-interval}, so a stream of made-up ids costs one listing per interval.
+ */
+@Component
+public class TenantRegistry {
+    
+    private static final Logger log = LoggerFactory.getLogger(TenantRegistry.class);
+    
+    private static final String TASKS = "tasks";
+    
+    @Autowired
+    private Firestore firestore;
+    
+    @Value("${app.tenants.allowed:}")
+    private List<String> allowed;
+    
+    @Value("${app.tenants.refresh-interval:60s}")
+    private Duration refreshInterval;
+    
+    private volatile Set<String> known;
+    private long refreshedAt;
+    private boolean listed;
+    
+    public boolean isKnown(String tenant) {
+        if (!TenantContext.isValid(tenant)) {
+            return false;
+        }
+        if (tenants().contains(tenant)) {
+            return true;
+        }
+        refreshIfStale();
+        return known.contains(tenant);
+    }
+    
+    public Set<String> tenants() {
+        Set<String> tenants = known;
+        if (tenants == null) {
+            synchronized (this) {
+                if (known == null) {
+                    known = configured();
+                }
+                tenants = known;
+            }
+        }
+        return tenants;
+    }
+    
+    /**
+     * Adds a tenant whose collection this instance just created, e.g. as a migration target.
+     */
+    public synchronized void register(String tenant) {
+        Set<String> tenants = new TreeSet<>(tenants());
+        tenants.add(tenant);
+        known = Set.copyOf(tenants);
+    }
+    
+    /**
+     * Re-reads the tenant collections now.
+     */
+    public synchronized Set<String> refresh() {
+        Set<String> tenants = new TreeSet<>(tenants());
+        try {
+            for (CollectionReference collection : firestore.listCollections()) {
+                String tenant = TenantContext.tenantOf(collection.getId(), TASKS);
+                if (tenant != null) {
+                    tenants.add(tenant);
+                }
+            }
+            known = Set.copyOf(tenants);
+        } catch (RuntimeException e) {
+            log.warn("Could not list tenant collections, keeping {} known tenants: {}", tenants.size(), e.getMessage());
+        } finally {
+            listed = true;
+            refreshedAt = System.nanoTime();
+        }
+        return known;
+    }
+    
+    private synchronized void refreshIfStale() {
+        if (!listed || System.nanoTime() - refreshedAt >= refreshInterval.toNanos()) {
+            refresh();
+        }
+    }
+    
+    private Set<String> configured() {
+        Set<String> tenants = new TreeSet<>();
+        tenants.add(TenantContext.DEFAULT_TENANT);
+        for (String tenant : allowed) {
+            if (TenantContext.isValid(tenant.trim())) {
+                tenants.add(tenant.trim());
+            } else if (!tenant.isBlank()) {
+                log.warn("Ignoring invalid tenant id in app.tenants.allowed: {}", tenant);
+            }
+        }
+        return Set.copyOf(tenants);
+    }
+}
@@ -0,0 +1,278 @@
+package com.example.api.warmup;
+
+import com.example.api.config.TaskConverter;
+import com.example.api.model.TaskNoSQL;
+import com.example.api.search.TaskSuggestIndex;
+import com.example.api.snapshot.TaskSnapshotService;
+import com.example.api.tenant.TenantContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.Firestore;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Warms the instance up before it reports ready, so the first real requests after a scale-out
+ * do not pay for gRPC channel setup, Jackson introspection, validation metadata or the JIT.
+ *
+ * <p>Runs once after startup on a background thread:
+ * <ol>
+ *   <li>{@code firestore}: a point read of a document that does not exist opens the channel</li>
+ *   <li>{@code converter}, {@code serialization}: synthetic tasks through TaskConverter, Jackson and the validator</li>
+ *   <li>{@code http}: loopback requests through the controllers that do not write anything</li>
+ *   <li>{@code caches}: waits for the suggest index and, if enabled, the warm-start replica</li>
+ * </ol>
+ * A failing step is recorded and skipped; warm-up is an optimization and never keeps the
+ * instance from becoming ready. The whole phase is bounded by {@code app.warmup.timeout}.
+ */
+@Component
+public class StartupWarmup {
+    
+    private static final Logger log = LoggerFactory.getLogger(StartupWarmup.class);
+    
+    private static final String PROBE_ID = "warmup-probe";
+    
+    @Autowired
+    private Firestore firestore;
+    
+    @Autowired
+    private TaskConverter taskConverter;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private Validator validator;
+    
+    @Autowired
+    private TaskSuggestIndex suggestIndex;
+    
+    @Autowired
+    private ObjectProvider<TaskSnapshotService> snapshotService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${app.warmup.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${app.warmup.iterations:2000}")
+    private int iterations;
+    
+    @Value("${app.warmup.http-iterations:20}")
+    private int httpIterations;
+    
+    @Value("${app.warmup.timeout:60s}")
+    private Duration timeout;
+    
+    @Value("${server.servlet.context-path:}")
+    private String contextPath;
+    
+    private final Map<String, Object> steps = Collections.synchronizedMap(new LinkedHashMap<>());
+    private volatile int port = -1;
+    private volatile String phase = "pending";
+    private volatile boolean done;
+    private long deadlineNanos;
+    
+    @EventListener
+    public void onWebServerInitialized(WebServerInitializedEvent event) {
+        // Ignore a separate management server, if one is configured
+        if (!"management".equals(event.getApplicationContext().getServerNamespace())) {
+            port = event.getWebServer().getPort();
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            phase = "disabled";
+            done = true;
+            return;
+        }
+        Thread warmer = new Thread(this::run, "startup-warmup");
+        warmer.setDaemon(true);
+        warmer.start();
+    }
+    
+    public boolean isDone() {
+        return done;
+    }
+    
+    public String getPhase() {
+        return phase;
+    }
+    
+    public Map<String, Object> getSteps() {
+        synchronized (steps) {
+            return new LinkedHashMap<>(steps);
+        }
+    }
+    
+    void run() {
+        long started = System.nanoTime();
+        deadlineNanos = started + timeout.toNanos();
+        step("firestore", this::openFirestoreChannel);
+        step("converter", this::exerciseConverter);
+        step("serialization", this::exerciseSerialization);
+        if (port > 0) {
+            step("http", this::exerciseControllers);
+        } else {
+            steps.put("http", Map.of("outcome", "skipped: no web server"));
+        }
+        step("caches", this::awaitCaches);
+        
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        meterRegistry.timer("startup.warmup").record(Duration.ofMillis(elapsedMs));
+        phase = "complete";
+        done = true;
+        log.info("Warm-up finished in {} ms: {}", elapsedMs, getSteps());
+    }
+    
+    private void step(String name, WarmupStep step) {
+        phase = name;
+        long started = System.nanoTime();
+        String outcome = "ok";
+        try {
+            if (System.nanoTime() > deadlineNanos) {
+                outcome = "skipped: warm-up timed out";
+            } else {
+                step.run();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            outcome = "interrupted";
+        } catch (Exception e) {
+            outcome = "failed: " + e.getMessage();
+            log.warn("Warm-up step {} failed: {}", name, e.toString());
+        }
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        meterRegistry.timer("startup.warmup.step", "step", name, "outcome", outcome.split(":")[0])
+                .record(Duration.ofMillis(elapsedMs));
+        steps.put(name, Map.of("outcome", outcome, "elapsedMs", elapsedMs));
+    }
+    
+    private void openFirestoreChannel() throws Exception {
+        firestore.collection(TenantContext.collectionName("tasks"))
+                .document(PROBE_ID)
+                .get()
+                .get(remainingNanos(), TimeUnit.NANOSECONDS);
+    }
+    
+    private void exerciseConverter() {
+        Timestamp now = Timestamp.now();
+        TaskNoSQL.TaskStatus[] statuses = TaskNoSQL.TaskStatus.values();
+        for (int i = 0; i < iterations; i++) {
+            Map<String, Object> data = new HashMap<>();
+            data.put("title", "Warm-up task " + i);
+            data.put("description", "Synthetic task used to warm up the converter");
+            data.put("status", statuses[i % statuses.length].name());
+            data.put("assignee", "warmup");
+            // Alternate between current and legacy timestamp fields to cover both branches
+            data.put(i % 2 == 0 ? "firestoreCreatedAt" : "createdAt", now);
+            data.put(i % 2 == 0 ? "firestoreUpdatedAt" : "updatedAt", now);
+            data.put("firestoreDueDate", now);
+            taskConverter.convertFromMap(PROBE_ID + "-" + i, data);
+        }
+    }
+    
+    private void exerciseSerialization() throws Exception {
+        TaskNoSQL task = syntheticTask();
+        byte[] list = objectMapper.writeValueAsBytes(List.of(task, task));
+        for (int i = 0; i < iterations; i++) {
+            byte[] json = objectMapper.writeValueAsBytes(task);
+            TaskNoSQL parsed = objectMapper.readValue(json, TaskNoSQL.class);
+            validator.validate(parsed);
+        }
+        objectMapper.readTree(list);
+    }
+    
+    private void exerciseControllers() throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(2))
+                .build();
+        String base = "http://127.0.0.1:" + port + contextPath + "/api/tasks";
+        // Reads of a missing id, an in-memory lookup and a rejected create: nothing is written
+        List<HttpRequest> requests = List.of(
+                HttpRequest.newBuilder(URI.create(base + "/" + PROBE_ID)).GET().build(),
+                HttpRequest.newBuilder(URI.create(base + "?ids=" + PROBE_ID)).GET().build(),
+                HttpRequest.newBuilder(URI.create(base + "/suggest?prefix=warm")).GET().build(),
+                HttpRequest.newBuilder(URI.create(base))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString("{\"title\":\"\"}"))
+                        .build());
+        for (int i = 0; i < httpIterations; i++) {
+            for (HttpRequest request : requests) {
+                HttpRequest timed = HttpRequest.newBuilder(request, (name, value) -> true)
+                        .timeout(Duration.ofNanos(remainingNanos()))
+                        .build();
+                client.send(timed, HttpResponse.BodyHandlers.discarding());
+            }
+        }
+    }
+    
+    private void awaitCaches() throws InterruptedException, TimeoutException {
+        TaskSnapshotService snapshot = snapshotService.getIfAvailable();
+        if (snapshot != null) {
+            // A failed replica load is logged by the snapshot service; the suggest index then scans instead
+            await(() -> snapshot.isLoaded() || snapshot.hasFailed(), "warm-start replica");
+        }
+        await(suggestIndex::isSeeded, "suggest index");
+    }
+    
+    private void await(BooleanSupplier condition, String what) throws InterruptedException, TimeoutException {
+        while (!condition.getAsBoolean()) {
+            if (System.nanoTime() > deadlineNanos) {
+                throw new TimeoutException(what + " not loaded before the warm-up timeout");
+            }
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+    }
+    
+    private long remainingNanos() throws TimeoutException {
+        long remaining = deadlineNanos - System.nanoTime();
+        if (remaining <= 0) {
+            throw new TimeoutException("warm-up timed out");
+        }
+        return remaining;
+    }
+    
+    private static TaskNoSQL syntheticTask() {
+        TaskNoSQL task = new TaskNoSQL("Warm-up task", "Synthetic task used to warm up serialization");
+        task.setId(PROBE_ID);
+        task.setStatus(TaskNoSQL.TaskStatus.IN_PROGRESS);
+        task.setAssignee("warmup");
+        task.setFirestoreCreatedAt(Timestamp.now());
+        task.setFirestoreUpdatedAt(Timestamp.now());
+        task.setFirestoreDueDate(Timestamp.now());
+        return task;
+    }
+    
+    @FunctionalInterface
+    private interface WarmupStep {
+        
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.api.warmup;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code warmup} health component; OUT_OF_SERVICE until {@link StartupWarmup} has finished.
+ * Part of the readiness group only, so a warming instance is never restarted for it.
+ */
+@Component
+public class WarmupHealthIndicator implements HealthIndicator {
+    
+    @Autowired
+    private StartupWarmup warmup;
+    
+    @Override
+    public Health health() {
+        Health.Builder builder = warmup.isDone() ? Health.up() : Health.outOfService();
+        return builder
+                .withDetail("phase", warmup.getPhase())
+                .withDetail("steps", warmup.getSteps())
+                .build();
+    }
+}
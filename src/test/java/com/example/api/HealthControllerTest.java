@@ -0,0 +1,53 @@
+package com.example.api;
+
+import com.example.api.controller.HealthController;
+import com.example.api.tenant.TenantRegistry;
+import com.example.api.warmup.StartupWarmup;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(HealthController.class)
+@ActiveProfiles("test")
+public class HealthControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private StartupWarmup startupWarmup;
+
+    @MockBean
+    private TenantRegistry tenantRegistry;
+
+    @Test
+    public void testReadyOnlyAfterWarmup() throws Exception {
+        when(startupWarmup.isDone()).thenReturn(false);
+        when(startupWarmup.getPhase()).thenReturn("http");
+        when(startupWarmup.getSteps()).thenReturn(Map.of());
+
+        mockMvc.perform(get("/ready"))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(jsonPath("$.status").value("WARMING_UP"))
+                .andExpect(jsonPath("$.phase").value("http"));
+        mockMvc.perform(get("/live"))
+                .andExpect(status().isOk());
+
+        when(startupWarmup.isDone()).thenReturn(true);
+        when(startupWarmup.getPhase()).thenReturn("complete");
+
+        mockMvc.perform(get("/ready"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("UP"));
+    }
+}
@@ -1,9 +1,17 @@
 package com.example.api;
 
 import com.example.api.controller.TaskNoSQLController;
+import com.example.api.model.TaskList;
 import com.example.api.model.TaskNoSQL;
+import com.example.api.model.TaskSuggestion;
+import com.example.api.service.TaskBulkService;
+import com.example.api.service.SyncTokenExpiredException;
 import com.example.api.service.TaskNoSQLService;
+import com.example.api.service.TaskSyncService;
+import com.example.api.tenant.TenantContext;
+import com.example.api.tenant.TenantRegistry;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -13,8 +21,12 @@ import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDateTime;
+import java.io.InputStream;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
@@ -32,9 +44,24 @@ public class TaskControllerTest {
     @MockBean
     private TaskNoSQLService taskService;
 
+    @MockBean
+    private TaskBulkService taskBulkService;
+
+    @MockBean
+    private TaskSyncService taskSyncService;
+
+    @MockBean
+    private TenantRegistry tenantRegistry;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @BeforeEach
+    public void setUp() {
+        Set<String> tenants = Set.of(TenantContext.DEFAULT_TENANT, "acme", "globex");
+        when(tenantRegistry.isKnown(anyString())).thenAnswer(invocation -> tenants.contains(invocation.<String>getArgument(0)));
+    }
+
     @Test
     public void testGetAllTasks() throws Exception {
         TaskNoSQL task1 = new TaskNoSQL("Task 1", "Description 1");
@@ -47,7 +74,7 @@ public class TaskControllerTest {
         task2.setCreatedAt(LocalDateTime.now());
         task2.setUpdatedAt(LocalDateTime.now());
 
-        when(taskService.getAllTasks()).thenReturn(Arrays.asList(task1, task2));
+        when(taskService.getAllTasks(false, null)).thenReturn(TaskList.of(Arrays.asList(task1, task2)));
 
         mockMvc.perform(get("/api/tasks"))
                 .andExpect(status().isOk())
@@ -58,6 +85,23 @@ public class TaskControllerTest {
                 .andExpect(jsonPath("$[1].title").value("Task 2"));
     }
 
+    @Test
+    public void testArchiveCursorHeader() throws Exception {
+        TaskNoSQL archived = new TaskNoSQL("Old task", null);
+        archived.setId("archived-1");
+        when(taskService.searchTasks("old", true, null)).thenReturn(new TaskList(List.of(archived), "archived-1"));
+        when(taskService.searchTasks("old", true, "archived-1")).thenReturn(TaskList.of(List.of()));
+
+        mockMvc.perform(get("/api/tasks/search").param("keyword", "old").param("includeArchived", "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Archive-Cursor", "archived-1"))
+                .andExpect(jsonPath("$[0].id").value("archived-1"));
+        mockMvc.perform(get("/api/tasks/search").param("keyword", "old").param("includeArchived", "true")
+                        .param("archiveAfter", "archived-1"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Archive-Cursor"));
+    }
+
     @Test
     public void testGetTaskById() throws Exception {
         TaskNoSQL task = new TaskNoSQL("Test Task", "Test Description");
@@ -65,7 +109,7 @@ public class TaskControllerTest {
         task.setCreatedAt(LocalDateTime.now());
         task.setUpdatedAt(LocalDateTime.now());
 
-        when(taskService.getTaskById("task-1")).thenReturn(Optional.of(task));
+        when(taskService.getTaskById("task-1", false)).thenReturn(Optional.of(task));
 
         mockMvc.perform(get("/api/tasks/task-1"))
                 .andExpect(status().isOk())
@@ -77,7 +121,7 @@ public class TaskControllerTest {
 
     @Test
     public void testGetTaskByIdNotFound() throws Exception {
-        when(taskService.getTaskById("nonexistent")).thenReturn(Optional.empty());
+        when(taskService.getTaskById("nonexistent", false)).thenReturn(Optional.empty());
 
         mockMvc.perform(get("/api/tasks/nonexistent"))
                 .andExpect(status().isNotFound());
@@ -138,4 +182,87 @@ public class TaskControllerTest {
         mockMvc.perform(delete("/api/tasks/task-1"))
                 .andExpect(status().isNoContent());
     }
+
+    @Test
+    public void testGetTasksByIds() throws Exception {
+        TaskNoSQL task = new TaskNoSQL("Task 2", "Description 2");
+        task.setId("task-2");
+
+        when(taskService.lookupTasks(List.of("task-2", "missing"), false))
+                .thenReturn(Map.of("tasks", List.of(task), "notFound", List.of("missing")));
+
+        mockMvc.perform(get("/api/tasks").param("ids", "task-2,missing"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks[0].id").value("task-2"))
+                .andExpect(jsonPath("$.notFound[0]").value("missing"));
+    }
+
+    @Test
+    public void testSuggestTasks() throws Exception {
+        when(taskService.suggestTasks("wri", 5))
+                .thenReturn(List.of(new TaskSuggestion("task-1", "Write docs", TaskNoSQL.TaskStatus.IN_PROGRESS)));
+
+        mockMvc.perform(get("/api/tasks/suggest").param("prefix", "wri").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value("task-1"))
+                .andExpect(jsonPath("$[0].title").value("Write docs"))
+                .andExpect(jsonPath("$[0].status").value("IN_PROGRESS"));
+    }
+
+    @Test
+    public void testGetChanges() throws Exception {
+        TaskNoSQL task = new TaskNoSQL("Changed task", null);
+        task.setId("task-1");
+        when(taskSyncService.getChanges("token-1", null))
+                .thenReturn(Map.of("tasks", List.of(task), "deleted", List.of("task-2"), "token", "token-2", "hasMore", false));
+        when(taskSyncService.getChanges("expired", null)).thenThrow(new SyncTokenExpiredException());
+        when(taskSyncService.getChanges("garbage", null)).thenThrow(new IllegalArgumentException("Malformed sync token"));
+
+        mockMvc.perform(get("/api/tasks/changes").param("since", "token-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.tasks[0].id").value("task-1"))
+                .andExpect(jsonPath("$.deleted[0]").value("task-2"))
+                .andExpect(jsonPath("$.token").value("token-2"))
+                .andExpect(jsonPath("$.hasMore").value(false));
+        mockMvc.perform(get("/api/tasks/changes").param("since", "expired"))
+                .andExpect(status().isGone());
+        mockMvc.perform(get("/api/tasks/changes").param("since", "garbage"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void testTenantFromHeaderOrPath() throws Exception {
+        when(taskService.getAllTasks(false, null)).thenAnswer(invocation -> {
+            TaskNoSQL task = new TaskNoSQL("Tenant task", TenantContext.current());
+            return TaskList.of(List.of(task));
+        });
+
+        mockMvc.perform(get("/api/tasks"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].description").value(TenantContext.DEFAULT_TENANT));
+        mockMvc.perform(get("/api/tasks").header(TenantContext.HEADER, "acme"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].description").value("acme"));
+        mockMvc.perform(get("/api/tenants/globex/tasks").header(TenantContext.HEADER, "acme"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].description").value("globex"));
+        mockMvc.perform(get("/api/tasks").header(TenantContext.HEADER, "../other"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/tenants/initech/tasks"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    public void testImportTasks() throws Exception {
+        when(taskBulkService.importTasks(any(InputStream.class)))
+                .thenReturn(Map.of("received", 2L, "imported", 1L, "invalid", 1L, "errors", List.of("line 2: Title is required")));
+
+        mockMvc.perform(post("/api/tasks/import")
+                .contentType("application/x-ndjson")
+                .content("{\"title\":\"Task 1\"}\n{\"title\":\"\"}\n"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1))
+                .andExpect(jsonPath("$.invalid").value(1))
+                .andExpect(jsonPath("$.errors[0]").value("line 2: Title is required"));
+    }
 }
@@ -0,0 +1,124 @@
+package com.example.api.archive;
+
+import com.example.api.loadtest.InMemoryTaskRepository;
+import com.example.api.model.TaskNoSQL;
+import com.example.api.model.TaskTombstone;
+import com.example.api.repository.TaskRepositoryNoSQL;
+import com.example.api.search.TaskSuggestIndex;
+import com.example.api.tenant.TenantContext;
+import com.example.api.tenant.TenantRegistry;
+import com.google.cloud.Timestamp;
+import io.grpc.Status;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TaskArchiverTest {
+
+    private final InMemoryTaskRepository repository = new InMemoryTaskRepository(0, 0, 0, 0);
+    private final TaskSuggestIndex suggestIndex = mock(TaskSuggestIndex.class);
+
+    private TaskArchiver archiver(Duration minAge, int batchSize, int maxPerRun) {
+        TaskArchiver archiver = new TaskArchiver();
+        ReflectionTestUtils.setField(archiver, "taskRepository", repository);
+        ReflectionTestUtils.setField(archiver, "suggestIndex", suggestIndex);
+        ReflectionTestUtils.setField(archiver, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(archiver, "statuses", List.of(TaskNoSQL.TaskStatus.COMPLETED, TaskNoSQL.TaskStatus.CANCELLED));
+        ReflectionTestUtils.setField(archiver, "minAge", minAge);
+        ReflectionTestUtils.setField(archiver, "batchSize", batchSize);
+        ReflectionTestUtils.setField(archiver, "batchDelay", Duration.ZERO);
+        ReflectionTestUtils.setField(archiver, "maxPerRun", maxPerRun);
+        return archiver;
+    }
+
+    private TaskNoSQL save(String id, TaskNoSQL.TaskStatus status) throws Exception {
+        TaskNoSQL task = new TaskNoSQL("Task " + id, null);
+        task.setId(id);
+        task.setStatus(status);
+        return repository.save(task);
+    }
+
+    @Test
+    public void testMovesOnlyOldTasksInTerminalStatus() throws Exception {
+        save("done", TaskNoSQL.TaskStatus.COMPLETED);
+        save("dropped", TaskNoSQL.TaskStatus.CANCELLED);
+        save("open", TaskNoSQL.TaskStatus.IN_PROGRESS);
+
+        assertEquals(0, archiver(Duration.ofDays(1), 10, 100).archive());
+
+        // A negative age puts the cutoff in the future, so the tasks saved above qualify
+        assertEquals(2, archiver(Duration.ofSeconds(-5), 10, 100).archive());
+        assertEquals(List.of("open"), repository.ids());
+        assertEquals(2, repository.findArchived(null, null, 10).size());
+        assertEquals(List.of("done"), repository.findArchived(null, null, 1).stream().map(TaskNoSQL::getId).toList());
+        // Archived tasks leave tombstones, so /changes, the snapshot and the suggest index drop them
+        assertEquals(List.of("done", "dropped"),
+                repository.findDeletedAfter(Timestamp.ofTimeSecondsAndNanos(0, 0), null, 10).stream().map(TaskTombstone::id).toList());
+        assertEquals(List.of("done"), repository.findArchivedById(List.of("done", "open")).stream().map(TaskNoSQL::getId).toList());
+        verify(suggestIndex).remove("done");
+        verify(suggestIndex).remove("dropped");
+    }
+
+    @Test
+    public void testStopsAtMaxPerRun() throws Exception {
+        for (int i = 0; i < 7; i++) {
+            save("task-" + i, TaskNoSQL.TaskStatus.COMPLETED);
+        }
+
+        TaskArchiver archiver = archiver(Duration.ofSeconds(-5), 2, 5);
+
+        assertEquals(5, archiver.archive());
+        assertEquals(2, repository.size());
+        assertEquals(2, archiver.archive());
+        assertEquals(0, repository.size());
+    }
+
+    @Test
+    public void testSkipsTenantsWithoutTheArchiveIndex() throws Exception {
+        // Only the default tenant's collection has the composite index
+        List<String> archivedTenants = new CopyOnWriteArrayList<>();
+        TaskRepositoryNoSQL tenantRepository = mock(TaskRepositoryNoSQL.class);
+        when(tenantRepository.archive(any(), any(), anyInt())).thenAnswer(invocation -> {
+            if (!TenantContext.DEFAULT_TENANT.equals(TenantContext.current())) {
+                throw new ExecutionException(Status.FAILED_PRECONDITION.withDescription("The query requires an index").asRuntimeException());
+            }
+            archivedTenants.add(TenantContext.current());
+            return List.of();
+        });
+        TenantRegistry tenantRegistry = mock(TenantRegistry.class);
+        when(tenantRegistry.refresh()).thenReturn(Set.of(TenantContext.DEFAULT_TENANT, "acme"));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+        TaskArchiver archiver = archiver(Duration.ofDays(30), 10, 100);
+        ReflectionTestUtils.setField(archiver, "taskRepository", tenantRepository);
+        ReflectionTestUtils.setField(archiver, "tenantRegistry", tenantRegistry);
+        ReflectionTestUtils.setField(archiver, "meterRegistry", meterRegistry);
+        archiver.archiveAll();
+        archiver.archiveAll();
+
+        assertEquals(List.of(TenantContext.DEFAULT_TENANT, TenantContext.DEFAULT_TENANT), archivedTenants);
+        assertEquals(2.0, meterRegistry.counter("tasks.archive.skipped", "tenant", "acme", "reason", "missing-index").count());
+    }
+
+    @Test
+    public void testRejectsNonTerminalStatuses() {
+        TaskArchiver archiver = archiver(Duration.ofDays(30), 10, 100);
+        ReflectionTestUtils.setField(archiver, "statuses", List.of(TaskNoSQL.TaskStatus.PENDING));
+
+        assertThrows(IllegalStateException.class, archiver::validate);
+    }
+}
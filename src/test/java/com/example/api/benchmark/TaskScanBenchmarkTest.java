@@ -0,0 +1,59 @@
+package com.example.api.benchmark;
+
+import com.example.api.loadtest.InMemoryTaskRepository;
+import com.example.api.model.TaskNoSQL;
+import com.example.api.scan.TaskScanEngine;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import static com.example.api.scan.TaskScanEngineFixture.engine;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares a sequential full scan with {@link TaskScanEngine} against an
+ * {@link InMemoryTaskRepository} that sleeps for a simulated round trip per page. Tagged, so it
+ * only runs with {@code mvn test -Pbenchmark}; the engine's behaviour is covered by
+ * {@link com.example.api.scan.TaskScanEngineTest}.
+ */
+public class TaskScanBenchmarkTest {
+    
+    private static final int TASKS = 20_000;
+    private static final int PAGE_SIZE = 500;
+    private static final int PARALLELISM = 8;
+    private static final long PAGE_LATENCY_MICROS = 15_000;
+    
+    @Test
+    @Tag("benchmark")
+    public void partitionedScanIsFasterThanSequential() throws Exception {
+        InMemoryTaskRepository repository = repository(PAGE_LATENCY_MICROS, TASKS);
+        TaskScanEngine sequential = engine(repository, 1, 1, PAGE_SIZE);
+        TaskScanEngine parallel = engine(repository, PARALLELISM, 2, PAGE_SIZE);
+        sequential.findAll();
+        parallel.findAll();
+        
+        double sequentialMs = measure(sequential);
+        double parallelMs = measure(parallel);
+        
+        System.out.printf("%nScanning %d tasks in pages of %d with %d ms per page: sequential %.0f ms, "
+                        + "%d threads %.0f ms, speedup %.2fx%n%n",
+                TASKS, PAGE_SIZE, PAGE_LATENCY_MICROS / 1_000, sequentialMs, PARALLELISM, parallelMs, sequentialMs / parallelMs);
+        assertTrue(sequentialMs / parallelMs > PARALLELISM / 2.0, "Partitioned scan should scale with the thread count");
+    }
+    
+    private static double measure(TaskScanEngine engine) throws Exception {
+        long started = System.nanoTime();
+        assertEquals(TASKS, engine.findAll().size());
+        return (System.nanoTime() - started) / 1_000_000.0;
+    }
+    
+    private static InMemoryTaskRepository repository(long pageLatencyMicros, int tasks) throws Exception {
+        InMemoryTaskRepository repository = new InMemoryTaskRepository(pageLatencyMicros, 0, pageLatencyMicros, 0);
+        for (int i = 0; i < tasks; i++) {
+            TaskNoSQL task = new TaskNoSQL("Task " + i, "Description " + i);
+            task.setId(String.format("task-%06d", i));
+            repository.save(task);
+        }
+        return repository;
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.api.benchmark;
+
+import com.example.api.config.TaskNoSQLSerializer;
+import com.example.api.model.TaskNoSQL;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.google.cloud.Timestamp;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the reflective TaskNoSQL serialization with {@link TaskNoSQLSerializer} on a
+ * large list response. The equivalence check runs in the default build; the timing run is
+ * tagged and only runs with {@code mvn test -Pbenchmark}.
+ */
+public class TaskSerializationBenchmarkTest {
+    
+    private static final int TASKS = 10_000;
+    private static final int WARMUP_ROUNDS = 30;
+    private static final int MEASURED_ROUNDS = 50;
+    
+    private final ObjectMapper reflective = Jackson2ObjectMapperBuilder.json().build();
+    private final ObjectMapper custom = Jackson2ObjectMapperBuilder.json()
+            .modulesToInstall(new SimpleModule().addSerializer(new TaskNoSQLSerializer()))
+            .build();
+    
+    @Test
+    public void customSerializerMatchesReflectiveOutput() throws Exception {
+        List<TaskNoSQL> tasks = tasks(200);
+        TaskNoSQL empty = new TaskNoSQL();
+        empty.setStatus(null);
+        tasks.add(empty);
+        
+        assertEquals(reflective.writeValueAsString(tasks), custom.writeValueAsString(tasks));
+    }
+    
+    @Test
+    @Tag("benchmark")
+    public void customSerializerIsFasterOnLargeList() throws Exception {
+        List<TaskNoSQL> tasks = tasks(TASKS);
+        ObjectWriter reflectiveWriter = reflective.writerFor(reflective.getTypeFactory().constructCollectionType(List.class, TaskNoSQL.class));
+        ObjectWriter customWriter = custom.writerFor(custom.getTypeFactory().constructCollectionType(List.class, TaskNoSQL.class));
+        
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            reflectiveWriter.writeValueAsBytes(tasks);
+            customWriter.writeValueAsBytes(tasks);
+        }
+        double reflectiveMs = measure(reflectiveWriter, tasks);
+        double customMs = measure(customWriter, tasks);
+        
+        System.out.printf("%nSerializing %d tasks: reflective %.2f ms/op, custom %.2f ms/op, speedup %.2fx%n%n",
+                TASKS, reflectiveMs, customMs, reflectiveMs / customMs);
+        assertTrue(customMs < reflectiveMs, "Custom serializer should beat reflective serialization");
+    }
+    
+    private static double measure(ObjectWriter writer, List<TaskNoSQL> tasks) throws Exception {
+        long bytes = 0;
+        long started = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            bytes += writer.writeValueAsBytes(tasks).length;
+        }
+        double millis = (System.nanoTime() - started) / 1_000_000.0 / MEASURED_ROUNDS;
+        assertTrue(bytes > 0);
+        return millis;
+    }
+    
+    private static List<TaskNoSQL> tasks(int count) {
+        TaskNoSQL.TaskStatus[] statuses = TaskNoSQL.TaskStatus.values();
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 9, 0);
+        List<TaskNoSQL> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            TaskNoSQL task = new TaskNoSQL("Task " + i, i % 7 == 0 ? null : "Description with \"quotes\" and unicode é " + i);
+            task.setId("task-" + i);
+            task.setStatus(statuses[i % statuses.length]);
+            task.setAssignee(i % 3 == 0 ? null : "user-" + (i % 50));
+            task.setCreatedAt(base.plusMinutes(i));
+            task.setFirestoreUpdatedAt(Timestamp.ofTimeSecondsAndNanos(1_700_000_000L + i / 10, 123_456_789));
+            if (i % 2 == 0) {
+                task.setDueDate(base.plusDays(i % 30));
+            }
+            tasks.add(task);
+        }
+        return tasks;
+    }
+}
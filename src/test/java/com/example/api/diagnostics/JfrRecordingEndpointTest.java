@@ -0,0 +1,48 @@
+package com.example.api.diagnostics;
+
+import jdk.jfr.Recording;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.Resource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JfrRecordingEndpointTest {
+
+    private static JfrRecordingEndpoint endpoint() {
+        JfrRecordingEndpoint endpoint = new JfrRecordingEndpoint();
+        ReflectionTestUtils.setField(endpoint, "defaultDuration", Duration.ofSeconds(60));
+        ReflectionTestUtils.setField(endpoint, "maxDuration", Duration.ofMinutes(5));
+        ReflectionTestUtils.setField(endpoint, "maxSizeMb", 10L);
+        return endpoint;
+    }
+
+    @Test
+    public void testRecordingLeavesOutEnvironmentAndSystemProperties() throws Exception {
+        JfrRecordingEndpoint endpoint = endpoint();
+
+        assertEquals(200, endpoint.start(5L, null).getStatus());
+        Map<String, String> settings = ((Recording) ReflectionTestUtils.getField(endpoint, "recording")).getSettings();
+        assertEquals("false", settings.get("jdk.InitialEnvironmentVariable#enabled"));
+        assertEquals("false", settings.get("jdk.InitialSystemProperty#enabled"));
+        assertEquals("false", settings.get("jdk.JVMInformation#enabled"));
+
+        Resource dump = endpoint.stop().getBody();
+        assertTrue(dump.contentLength() > 0);
+        dump.getFile().delete();
+    }
+
+    @Test
+    public void testRejectsNonPositiveDuration() {
+        JfrRecordingEndpoint endpoint = endpoint();
+
+        assertEquals(400, endpoint.start(0L, null).getStatus());
+        assertEquals(400, endpoint.start(-5L, null).getStatus());
+        assertNull(ReflectionTestUtils.getField(endpoint, "recording"));
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.api.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Latency samples for one endpoint. Samples are appended under a lock; percentiles are
+ * computed once at the end of the run.
+ */
+class EndpointStats {
+    
+    private final String name;
+    private long[] samples = new long[4096];
+    private int count;
+    private long errors;
+    
+    EndpointStats(String name) {
+        this.name = name;
+    }
+    
+    String getName() {
+        return name;
+    }
+    
+    synchronized void record(long latencyNanos, boolean success) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = latencyNanos;
+        if (!success) {
+            errors++;
+        }
+    }
+    
+    synchronized int getCount() {
+        return count;
+    }
+    
+    synchronized long getErrors() {
+        return errors;
+    }
+    
+    /**
+     * Nearest-rank percentile in milliseconds.
+     */
+    synchronized double percentileMillis(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100.0 * count);
+        return sorted[Math.max(0, rank - 1)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,282 @@
+package com.example.api.loadtest;
+
+import com.example.api.model.TaskNoSQL;
+import com.example.api.model.TaskTombstone;
+import com.example.api.repository.TaskBulkWriter;
+import com.example.api.repository.TaskPartition;
+import com.example.api.repository.TaskRepositoryNoSQL;
+import com.google.cloud.Timestamp;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Firestore stand-in for load tests. Every call sleeps for a simulated round trip
+ * (base latency plus an exponential tail) before touching an in-memory map, so the
+ * service sees realistic blocking behaviour without a real backend.
+ */
+public class InMemoryTaskRepository implements TaskRepositoryNoSQL {
+    
+    private final ConcurrentSkipListMap<String, TaskNoSQL> tasks = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<String, TaskTombstone> tombstones = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<String, TaskNoSQL> archived = new ConcurrentSkipListMap<>();
+    private final long readLatencyMicros;
+    private final long writeLatencyMicros;
+    private final long scanLatencyMicros;
+    private final double tailRatio;
+    
+    public InMemoryTaskRepository(long readLatencyMicros, long writeLatencyMicros, long scanLatencyMicros, double tailRatio) {
+        this.readLatencyMicros = readLatencyMicros;
+        this.writeLatencyMicros = writeLatencyMicros;
+        this.scanLatencyMicros = scanLatencyMicros;
+        this.tailRatio = tailRatio;
+    }
+    
+    public int size() {
+        return tasks.size();
+    }
+    
+    public List<String> ids() {
+        return new ArrayList<>(tasks.keySet());
+    }
+    
+    @Override
+    public List<TaskNoSQL> findAll() throws InterruptedException {
+        simulate(scanLatencyMicros);
+        return copyAll(tasks.values());
+    }
+    
+    @Override
+    public Optional<TaskNoSQL> findById(String id) throws InterruptedException {
+        simulate(readLatencyMicros);
+        return Optional.ofNullable(tasks.get(id)).map(InMemoryTaskRepository::copy);
+    }
+    
+    @Override
+    public List<TaskNoSQL> findAllById(List<String> ids) throws InterruptedException {
+        simulate(readLatencyMicros);
+        List<TaskNoSQL> found = new ArrayList<>();
+        ids.forEach(id -> Optional.ofNullable(tasks.get(id)).map(InMemoryTaskRepository::copy).ifPresent(found::add));
+        return found;
+    }
+    
+    @Override
+    public TaskNoSQL save(TaskNoSQL task) throws InterruptedException {
+        simulate(writeLatencyMicros);
+        store(task);
+        return task;
+    }
+    
+    @Override
+    public void deleteById(String id) throws InterruptedException {
+        simulate(writeLatencyMicros);
+        tasks.remove(id);
+        tombstones.put(id, new TaskTombstone(id, Timestamp.now()));
+    }
+    
+    @Override
+    public List<TaskNoSQL> findByStatus(TaskNoSQL.TaskStatus status) throws InterruptedException {
+        simulate(readLatencyMicros);
+        return copyAll(tasks.values().stream().filter(task -> task.getStatus() == status).toList());
+    }
+    
+    @Override
+    public List<TaskNoSQL> findByTitleOrDescriptionContaining(String keyword) throws InterruptedException {
+        simulate(scanLatencyMicros);
+        String searchKeyword = keyword.toLowerCase();
+        return copyAll(tasks.values().stream()
+                .filter(task -> (task.getTitle() != null && task.getTitle().toLowerCase().contains(searchKeyword)) ||
+                        (task.getDescription() != null && task.getDescription().toLowerCase().contains(searchKeyword)))
+                .toList());
+    }
+    
+    @Override
+    public boolean existsById(String id) throws InterruptedException {
+        simulate(readLatencyMicros);
+        return tasks.containsKey(id);
+    }
+    
+    @Override
+    public void forEachPage(int pageSize, Consumer<List<TaskNoSQL>> pageConsumer) throws InterruptedException {
+        forEachPage(null, null, pageSize, pageConsumer);
+    }
+    
+    private void forEachPage(String start, String end, int pageSize, Consumer<List<TaskNoSQL>> pageConsumer) throws InterruptedException {
+        ConcurrentNavigableMap<String, TaskNoSQL> range = start == null ? tasks : tasks.tailMap(start, true);
+        if (end != null) {
+            range = range.headMap(end, false);
+        }
+        String lastId = null;
+        while (true) {
+            simulate(readLatencyMicros);
+            Map<String, TaskNoSQL> remaining = lastId == null ? range : range.tailMap(lastId, false);
+            List<TaskNoSQL> page = copyAll(remaining.values().stream().limit(pageSize).toList());
+            if (page.isEmpty()) {
+                return;
+            }
+            pageConsumer.accept(page);
+            if (page.size() < pageSize) {
+                return;
+            }
+            lastId = page.get(page.size() - 1).getId();
+        }
+    }
+    
+    @Override
+    public List<TaskPartition> partitions(int desiredCount) throws InterruptedException {
+        simulate(readLatencyMicros);
+        List<String> ids = ids();
+        int count = Math.max(1, Math.min(desiredCount, ids.size()));
+        List<TaskPartition> partitions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            // Ranges are [start, end), the last one open-ended like a Firestore partition
+            String start = i == 0 ? null : ids.get(i * ids.size() / count);
+            String end = i == count - 1 ? null : ids.get((i + 1) * ids.size() / count);
+            partitions.add((pageSize, pageConsumer) -> forEachPage(start, end, pageSize, pageConsumer));
+        }
+        return partitions;
+    }
+    
+    @Override
+    public List<TaskNoSQL> findUpdatedAfter(Timestamp updatedAfter, String afterId, int limit) throws InterruptedException {
+        simulate(readLatencyMicros);
+        return copyAll(tasks.values().stream()
+                .filter(task -> task.getFirestoreUpdatedAt() != null)
+                .filter(task -> {
+                    int compare = task.getFirestoreUpdatedAt().compareTo(updatedAfter);
+                    return compare > 0 || (compare == 0 && afterId != null && task.getId().compareTo(afterId) > 0);
+                })
+                .sorted(Comparator.comparing(TaskNoSQL::getFirestoreUpdatedAt).thenComparing(TaskNoSQL::getId))
+                .limit(limit)
+                .toList());
+    }
+    
+    @Override
+    public List<TaskTombstone> findDeletedAfter(Timestamp deletedAfter, String afterId, int limit) throws InterruptedException {
+        simulate(readLatencyMicros);
+        return tombstones.values().stream()
+                .filter(tombstone -> {
+                    int compare = tombstone.deletedAt().compareTo(deletedAfter);
+                    return compare > 0 || (compare == 0 && afterId != null && tombstone.id().compareTo(afterId) > 0);
+                })
+                .sorted(Comparator.comparing(TaskTombstone::deletedAt).thenComparing(TaskTombstone::id))
+                .limit(limit)
+                .toList();
+    }
+    
+    @Override
+    public List<TaskNoSQL> findArchived(TaskNoSQL.TaskStatus status, String afterId, int limit) throws InterruptedException {
+        simulate(scanLatencyMicros);
+        return copyAll((afterId == null ? archived : archived.tailMap(afterId, false)).values().stream()
+                .filter(task -> status == null || task.getStatus() == status)
+                .limit(limit)
+                .toList());
+    }
+    
+    @Override
+    public List<TaskNoSQL> findArchivedById(List<String> ids) throws InterruptedException {
+        simulate(readLatencyMicros);
+        List<TaskNoSQL> found = new ArrayList<>();
+        ids.forEach(id -> Optional.ofNullable(archived.get(id)).map(InMemoryTaskRepository::copy).ifPresent(found::add));
+        return found;
+    }
+    
+    @Override
+    public synchronized List<TaskNoSQL> archive(Collection<TaskNoSQL.TaskStatus> statuses, Timestamp updatedBefore, int limit)
+            throws InterruptedException {
+        simulate(writeLatencyMicros);
+        List<TaskNoSQL> moved = tasks.values().stream()
+                .filter(task -> statuses.contains(task.getStatus()))
+                .filter(task -> task.getFirestoreUpdatedAt() != null && task.getFirestoreUpdatedAt().compareTo(updatedBefore) < 0)
+                .sorted(Comparator.comparing(TaskNoSQL::getFirestoreUpdatedAt))
+                .limit(limit)
+                .toList();
+        Timestamp archivedAt = Timestamp.now();
+        moved.forEach(task -> {
+            tasks.remove(task.getId());
+            archived.put(task.getId(), task);
+            tombstones.put(task.getId(), new TaskTombstone(task.getId(), archivedAt));
+        });
+        return copyAll(moved);
+    }
+    
+    @Override
+    public TaskBulkWriter bulkWriter(int maxInFlight, Consumer<TaskNoSQL> onWritten) {
+        AtomicLong succeeded = new AtomicLong();
+        return new TaskBulkWriter() {
+            @Override
+            public void write(TaskNoSQL task) {
+                store(task);
+                succeeded.incrementAndGet();
+                onWritten.accept(task);
+            }
+            
+            @Override
+            public long getSucceededCount() {
+                return succeeded.get();
+            }
+            
+            @Override
+            public long getFailedCount() {
+                return 0;
+            }
+            
+            @Override
+            public void close() throws InterruptedException {
+                simulate(writeLatencyMicros);
+            }
+        };
+    }
+    
+    private void store(TaskNoSQL task) {
+        if (task.getId() == null || task.getId().isEmpty()) {
+            task.setId(UUID.randomUUID().toString());
+            task.setFirestoreCreatedAt(Timestamp.now());
+        }
+        task.setFirestoreUpdatedAt(Timestamp.now());
+        tasks.put(task.getId(), copy(task));
+    }
+    
+    private void simulate(long baseMicros) throws InterruptedException {
+        if (baseMicros <= 0) {
+            return;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long micros = baseMicros;
+        if (random.nextDouble() < tailRatio) {
+            // Occasional slow call, roughly 3-10x the base latency
+            micros += (long) (baseMicros * (2 + random.nextDouble() * 7));
+        } else {
+            micros += (long) (baseMicros * 0.2 * random.nextDouble());
+        }
+        long deadline = System.nanoTime() + micros * 1000;
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+    
+    private static List<TaskNoSQL> copyAll(Iterable<TaskNoSQL> source) {
+        List<TaskNoSQL> copies = new ArrayList<>();
+        source.forEach(task -> copies.add(copy(task)));
+        return copies;
+    }
+    
+    static TaskNoSQL copy(TaskNoSQL source) {
+        return new TaskNoSQL(source);
+    }
+}
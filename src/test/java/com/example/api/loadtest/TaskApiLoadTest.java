@@ -0,0 +1,288 @@
+package com.example.api.loadtest;
+
+import com.example.api.model.TaskNoSQL;
+import com.example.api.repository.TaskRepositoryNoSQL;
+import com.google.cloud.firestore.Firestore;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * End-to-end load test against the real web stack with an {@link InMemoryTaskRepository}
+ * standing in for Firestore. Drives a weighted mix of reads, writes and searches at a fixed
+ * concurrency, reports throughput and p50/p95/p99 per endpoint, and fails when results
+ * regress past {@code loadtest/baseline.properties}.
+ *
+ * <p>Excluded from the default build; run with {@code mvn test -Pload-test}. Tunables are
+ * system properties, e.g. {@code -Dloadtest.concurrency=32 -Dloadtest.duration-seconds=60}.
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.cloud.gcp.core.enabled=false",
+        "spring.cloud.gcp.firestore.enabled=false"
+})
+@ActiveProfiles("test")
+public class TaskApiLoadTest {
+    
+    private static final String BASELINE = "/loadtest/baseline.properties";
+    private static final Path REPORT = Path.of("target", "loadtest", "report.properties");
+    private static final String[] KEYWORDS = {"alpha", "beta", "gamma", "delta", "epsilon"};
+    
+    @LocalServerPort
+    private int port;
+    
+    @MockBean
+    private Firestore firestore;
+    
+    @Autowired
+    private InMemoryTaskRepository repository;
+    
+    @Value("${loadtest.concurrency:16}")
+    private int concurrency;
+    
+    @Value("${loadtest.warmup-seconds:5}")
+    private int warmupSeconds;
+    
+    @Value("${loadtest.duration-seconds:20}")
+    private int durationSeconds;
+    
+    @Value("${loadtest.seed-tasks:2000}")
+    private int seedTasks;
+    
+    @Value("${loadtest.mix:get-by-id:50,by-status:10,search:5,create:20,update:15}")
+    private String mix;
+    
+    @Value("${loadtest.tolerance:0.3}")
+    private double tolerance;
+    
+    @Value("${loadtest.max-error-rate:0.01}")
+    private double maxErrorRate;
+    
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+    
+    @TestConfiguration
+    static class InMemoryRepositoryConfig {
+        
+        @Bean
+        @Primary
+        public InMemoryTaskRepository inMemoryTaskRepository(
+                @Value("${loadtest.latency.read-micros:2000}") long readMicros,
+                @Value("${loadtest.latency.write-micros:5000}") long writeMicros,
+                @Value("${loadtest.latency.scan-micros:20000}") long scanMicros,
+                @Value("${loadtest.latency.tail-ratio:0.02}") double tailRatio) {
+            return new InMemoryTaskRepository(readMicros, writeMicros, scanMicros, tailRatio);
+        }
+    }
+    
+    @Test
+    public void mixedTrafficStaysWithinBaseline() throws Exception {
+        seed();
+        Map<String, Integer> weights = parseMix(mix);
+        
+        run(weights, warmupSeconds, newStats(weights));
+        Map<String, EndpointStats> stats = newStats(weights);
+        long elapsedNanos = run(weights, durationSeconds, stats);
+        
+        Properties report = report(stats, elapsedNanos);
+        Files.createDirectories(REPORT.getParent());
+        try (OutputStream out = Files.newOutputStream(REPORT)) {
+            report.store(out, "Load test report; copy to src/test/resources" + BASELINE + " to accept as the new baseline");
+        }
+        
+        List<String> regressions = compareToBaseline(report, stats);
+        regressions.forEach(regression -> System.out.println("REGRESSION: " + regression));
+        assertTrue(regressions.isEmpty(), "Load test regressed past baseline: " + regressions);
+    }
+    
+    private void seed() throws Exception {
+        TaskNoSQL.TaskStatus[] statuses = TaskNoSQL.TaskStatus.values();
+        for (int i = repository.size(); i < seedTasks; i++) {
+            // Titles contain the search terms, e.g. "gamma17", each shared by a handful of tasks
+            String term = KEYWORDS[i % KEYWORDS.length] + (i / KEYWORDS.length) % 100;
+            TaskNoSQL task = new TaskNoSQL("Task " + term + " " + i, "Seeded task number " + i);
+            task.setStatus(statuses[i % statuses.length]);
+            task.setAssignee("user-" + (i % 50));
+            repository.bulkWriter(1, written -> { }).write(task);
+        }
+    }
+    
+    private long run(Map<String, Integer> weights, int seconds, Map<String, EndpointStats> stats) throws Exception {
+        List<String> ids = repository.ids();
+        int totalWeight = weights.values().stream().mapToInt(Integer::intValue).sum();
+        long started = System.nanoTime();
+        long deadline = started + TimeUnit.SECONDS.toNanos(seconds);
+        
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            workers.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    String endpoint = pick(weights, totalWeight);
+                    HttpRequest request = request(endpoint, ids);
+                    long start = System.nanoTime();
+                    boolean success;
+                    try {
+                        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+                        success = response.statusCode() < 400;
+                    } catch (IOException e) {
+                        success = false;
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    stats.get(endpoint).record(System.nanoTime() - start, success);
+                }
+            });
+        }
+        workers.shutdown();
+        assertTrue(workers.awaitTermination(seconds + 60L, TimeUnit.SECONDS), "Load generators did not finish");
+        return System.nanoTime() - started;
+    }
+    
+    private HttpRequest request(String endpoint, List<String> ids) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String base = "http://localhost:" + port + "/api/tasks";
+        String id = ids.get(random.nextInt(ids.size()));
+        String body = "{\"title\":\"Load " + KEYWORDS[random.nextInt(KEYWORDS.length)] + " " + random.nextInt(1_000_000)
+                + "\",\"description\":\"Generated by load test\",\"status\":\"IN_PROGRESS\"}";
+        
+        HttpRequest.Builder builder = switch (endpoint) {
+            case "get-by-id" -> HttpRequest.newBuilder(URI.create(base + "/" + id)).GET();
+            case "by-status" -> HttpRequest.newBuilder(URI.create(base + "/status/"
+                    + TaskNoSQL.TaskStatus.values()[random.nextInt(TaskNoSQL.TaskStatus.values().length)])).GET();
+            case "search" -> HttpRequest.newBuilder(URI.create(base + "/search?keyword="
+                    + KEYWORDS[random.nextInt(KEYWORDS.length)] + random.nextInt(100))).GET();
+            case "create" -> HttpRequest.newBuilder(URI.create(base))
+                    .POST(HttpRequest.BodyPublishers.ofString(body));
+            case "update" -> HttpRequest.newBuilder(URI.create(base + "/" + id))
+                    .PUT(HttpRequest.BodyPublishers.ofString(body));
+            default -> throw new IllegalArgumentException("Unknown endpoint in loadtest.mix: " + endpoint);
+        };
+        return builder.header("Content-Type", "application/json").build();
+    }
+    
+    private static String pick(Map<String, Integer> weights, int totalWeight) {
+        int roll = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Map.Entry<String, Integer> entry : weights.entrySet()) {
+            roll -= entry.getValue();
+            if (roll < 0) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Weights do not add up");
+    }
+    
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] entry = part.trim().split(":");
+            weights.put(entry[0], Integer.parseInt(entry[1]));
+        }
+        return weights;
+    }
+    
+    private static Map<String, EndpointStats> newStats(Map<String, Integer> weights) {
+        Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        weights.keySet().forEach(endpoint -> stats.put(endpoint, new EndpointStats(endpoint)));
+        return stats;
+    }
+    
+    private Properties report(Map<String, EndpointStats> stats, long elapsedNanos) {
+        Properties report = new Properties();
+        double seconds = elapsedNanos / 1_000_000_000.0;
+        long total = 0;
+        long errors = 0;
+        
+        System.out.printf("%nLoad test: %d workers, %d s, %d seeded tasks%n", concurrency, durationSeconds, seedTasks);
+        System.out.printf("%-12s %10s %10s %8s %10s %10s %10s%n", "endpoint", "requests", "req/s", "errors", "p50 ms", "p95 ms", "p99 ms");
+        for (EndpointStats endpoint : stats.values()) {
+            String name = endpoint.getName();
+            double p50 = endpoint.percentileMillis(50);
+            double p95 = endpoint.percentileMillis(95);
+            double p99 = endpoint.percentileMillis(99);
+            System.out.printf("%-12s %10d %10.1f %8d %10.2f %10.2f %10.2f%n",
+                    name, endpoint.getCount(), endpoint.getCount() / seconds, endpoint.getErrors(), p50, p95, p99);
+            
+            report.setProperty(name + ".p50-ms", format(p50));
+            report.setProperty(name + ".p95-ms", format(p95));
+            report.setProperty(name + ".p99-ms", format(p99));
+            total += endpoint.getCount();
+            errors += endpoint.getErrors();
+        }
+        System.out.printf("%-12s %10d %10.1f %8d%n%n", "total", total, total / seconds, errors);
+        report.setProperty("throughput-rps", format(total / seconds));
+        return report;
+    }
+    
+    private List<String> compareToBaseline(Properties report, Map<String, EndpointStats> stats) throws IOException {
+        List<String> regressions = new ArrayList<>();
+        for (EndpointStats endpoint : stats.values()) {
+            if (endpoint.getCount() > 0 && (double) endpoint.getErrors() / endpoint.getCount() > maxErrorRate) {
+                regressions.add(endpoint.getName() + " error rate " + endpoint.getErrors() + "/" + endpoint.getCount());
+            }
+        }
+        long total = stats.values().stream().mapToLong(EndpointStats::getCount).sum();
+        long errors = stats.values().stream().mapToLong(EndpointStats::getErrors).sum();
+        if (total == 0 || (double) errors / total > maxErrorRate) {
+            regressions.add("overall error rate " + errors + "/" + total);
+        }
+        
+        Properties baseline = new Properties();
+        try (InputStream in = getClass().getResourceAsStream(BASELINE)) {
+            if (in == null) {
+                System.out.println("No baseline at " + BASELINE + "; skipping regression check");
+                return regressions;
+            }
+            baseline.load(in);
+        }
+        
+        for (String key : baseline.stringPropertyNames()) {
+            String measured = report.getProperty(key);
+            if (measured == null) {
+                continue;
+            }
+            double expected = Double.parseDouble(baseline.getProperty(key));
+            double actual = Double.parseDouble(measured);
+            boolean higherIsBetter = key.equals("throughput-rps");
+            if (higherIsBetter ? actual < expected * (1 - tolerance) : actual > expected * (1 + tolerance)) {
+                regressions.add(String.format("%s: %.2f vs baseline %.2f (tolerance %.0f%%)", key, actual, expected, tolerance * 100));
+            }
+        }
+        return regressions;
+    }
+    
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.2f", value);
+    }
+}
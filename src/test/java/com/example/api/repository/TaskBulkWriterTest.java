@@ -0,0 +1,105 @@
+package com.example.api.repository;
+
+import com.example.api.model.TaskNoSQL;
+import com.google.api.core.SettableApiFuture;
+import com.google.cloud.firestore.BulkWriter;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.WriteResult;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TaskBulkWriterTest {
+
+    private final Firestore firestore = mock(Firestore.class);
+    private final BulkWriter bulkWriter = mock(BulkWriter.class);
+    private final TaskCache taskCache = new TaskCache(100, new SimpleMeterRegistry());
+    private final List<SettableApiFuture<WriteResult>> pending = new CopyOnWriteArrayList<>();
+
+    private TaskRepositoryImpl repository() {
+        CollectionReference collection = mock(CollectionReference.class);
+        when(collection.document(anyString())).thenReturn(mock(DocumentReference.class));
+        when(firestore.collection("tasks")).thenReturn(collection);
+        when(firestore.bulkWriter()).thenReturn(bulkWriter);
+        when(bulkWriter.set(any(DocumentReference.class), any(Object.class))).thenAnswer(invocation -> {
+            SettableApiFuture<WriteResult> result = SettableApiFuture.create();
+            pending.add(result);
+            return result;
+        });
+
+        TaskRepositoryImpl repository = new TaskRepositoryImpl();
+        ReflectionTestUtils.setField(repository, "firestore", firestore);
+        ReflectionTestUtils.setField(repository, "taskCache", taskCache);
+        return repository;
+    }
+
+    private static TaskNoSQL task(String id, String title) {
+        TaskNoSQL task = new TaskNoSQL(title, null);
+        task.setId(id);
+        return task;
+    }
+
+    @Test
+    public void testBlocksOnceMaxInFlightWritesArePending() throws Exception {
+        List<String> written = new CopyOnWriteArrayList<>();
+        TaskBulkWriter writer = repository().bulkWriter(2, task -> written.add(task.getId()));
+        writer.write(task("a", "A"));
+        writer.write(task("b", "B"));
+
+        Thread third = new Thread(() -> {
+            try {
+                writer.write(task("c", "C"));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        third.start();
+        third.join(200);
+
+        assertTrue(third.isAlive(), "A third write must wait for a free slot");
+        verify(bulkWriter).flush();
+        assertEquals(2, pending.size());
+
+        pending.get(0).set(null);
+        third.join(TimeUnit.SECONDS.toMillis(5));
+        assertFalse(third.isAlive());
+        pending.get(1).setException(new IllegalStateException("rejected"));
+        pending.get(2).set(null);
+        writer.close();
+
+        assertEquals(2, writer.getSucceededCount());
+        assertEquals(1, writer.getFailedCount());
+        assertEquals(List.of("a", "c"), written);
+    }
+
+    @Test
+    public void testWritesReplaceCachedCopiesAndStatusQueries() throws Exception {
+        TaskRepositoryImpl repository = repository();
+        taskCache.put(task("a", "Old title"));
+        taskCache.putByStatus(TaskNoSQL.TaskStatus.PENDING, new ArrayList<>(List.of(task("a", "Old title"))), taskCache.stamp());
+
+        TaskBulkWriter writer = repository.bulkWriter(10, task -> { });
+        writer.write(task("a", "New title"));
+        pending.get(0).set(null);
+        writer.close();
+
+        assertEquals("New title", taskCache.get("a").orElseThrow().getTitle());
+        assertTrue(taskCache.getByStatus(TaskNoSQL.TaskStatus.PENDING).isEmpty());
+    }
+}
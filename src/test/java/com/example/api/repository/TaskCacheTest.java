@@ -0,0 +1,74 @@
+package com.example.api.repository;
+
+import com.example.api.model.TaskNoSQL;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TaskCacheTest {
+
+    private final TaskCache taskCache = new TaskCache(2, new SimpleMeterRegistry());
+
+    private static TaskNoSQL task(String id, String title) {
+        TaskNoSQL task = new TaskNoSQL(title, null);
+        task.setId(id);
+        return task;
+    }
+
+    @Test
+    public void testEditsToStoredOrReturnedTasksDoNotReachTheCache() {
+        TaskNoSQL stored = task("a", "Saved title");
+        taskCache.put(stored);
+        stored.setTitle("Unsaved edit");
+        taskCache.get("a").orElseThrow().setTitle("Another unsaved edit");
+        taskCache.putByStatus(TaskNoSQL.TaskStatus.PENDING, List.of(task("a", "Saved title")), taskCache.stamp());
+        taskCache.getByStatus(TaskNoSQL.TaskStatus.PENDING).orElseThrow().get(0).setTitle("Unsaved edit");
+
+        assertEquals("Saved title", taskCache.get("a").orElseThrow().getTitle());
+        assertEquals("Saved title", taskCache.getByStatus(TaskNoSQL.TaskStatus.PENDING).orElseThrow().get(0).getTitle());
+    }
+
+    @Test
+    public void testReadStartedBeforeEvictDoesNotPutTheTaskBack() {
+        taskCache.put(task("a", "Doomed"));
+        long stamp = taskCache.stamp();
+        taskCache.evict("a");
+        taskCache.invalidateQueries();
+
+        taskCache.putIfUnchanged(task("a", "Doomed"), stamp);
+        taskCache.putByStatus(TaskNoSQL.TaskStatus.PENDING, List.of(task("a", "Doomed")), stamp);
+
+        assertTrue(taskCache.get("a").isEmpty());
+        assertTrue(taskCache.getByStatus(TaskNoSQL.TaskStatus.PENDING).isEmpty());
+        assertEquals(0, taskCache.size());
+
+        taskCache.putIfUnchanged(task("a", "Recreated"), taskCache.stamp());
+        assertEquals("Recreated", taskCache.get("a").orElseThrow().getTitle());
+    }
+
+    @Test
+    public void testReadStartedBeforeWriteKeepsTheWrite() {
+        long stamp = taskCache.stamp();
+        taskCache.put(task("a", "New title"));
+
+        taskCache.putIfUnchanged(task("a", "Old title"), stamp);
+
+        assertEquals("New title", taskCache.get("a").orElseThrow().getTitle());
+    }
+
+    @Test
+    public void testStaleReadOfAKeyPushedOutBySizeLimitIsDropped() {
+        long stamp = taskCache.stamp();
+        taskCache.evict("a");
+        taskCache.put(task("b", "B"));
+        taskCache.put(task("c", "C"));
+
+        taskCache.putIfUnchanged(task("a", "Doomed"), stamp);
+
+        assertTrue(taskCache.get("a").isEmpty());
+    }
+}
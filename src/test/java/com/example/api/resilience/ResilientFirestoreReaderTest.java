@@ -0,0 +1,97 @@
+package com.example.api.resilience;
+
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutures;
+import com.google.api.core.SettableApiFuture;
+import com.google.cloud.firestore.FirestoreException;
+import io.grpc.Status;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ResilientFirestoreReaderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ResilientFirestoreReader reader(int maxAttempts) {
+        return reader(maxAttempts, Duration.ofMinutes(1));
+    }
+
+    private ResilientFirestoreReader reader(int maxAttempts, Duration openDuration) {
+        return new ResilientFirestoreReader(meterRegistry, true, 95, Duration.ofMillis(10), Duration.ofMillis(10),
+                maxAttempts, Duration.ofMillis(1), Duration.ofMillis(5),
+                4, 4, 0.5, openDuration, 1);
+    }
+
+    @Test
+    public void testSlowPrimaryIsHedged() throws Exception {
+        ResilientFirestoreReader reader = reader(1);
+        AtomicInteger calls = new AtomicInteger();
+        SettableApiFuture<String> stuck = SettableApiFuture.create();
+
+        String result = reader.read("findById", () -> calls.incrementAndGet() == 1 ? stuck : ApiFutures.immediateFuture("hedge"));
+
+        assertEquals("hedge", result);
+        assertEquals(2, calls.get());
+        assertEquals(1.0, meterRegistry.counter("firestore.read.hedges", "operation", "findById").count());
+        assertEquals(1.0, meterRegistry.counter("firestore.read.hedge.winner", "operation", "findById", "winner", "hedge").count());
+    }
+
+    @Test
+    public void testTransientErrorsAreRetried() throws Exception {
+        ResilientFirestoreReader reader = reader(3);
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = reader.read("findById", () -> calls.incrementAndGet() < 3 ? unavailable() : ApiFutures.immediateFuture("ok"));
+
+        assertEquals("ok", result);
+        assertEquals(2.0, meterRegistry.counter("firestore.read.retries", "operation", "findById").count());
+    }
+
+    @Test
+    public void testCircuitOpensAfterRepeatedFailures() {
+        ResilientFirestoreReader reader = reader(1);
+
+        for (int i = 0; i < 4; i++) {
+            assertThrows(ExecutionException.class, () -> reader.read("findById", ResilientFirestoreReaderTest::unavailable));
+        }
+
+        assertThrows(CircuitOpenException.class, () -> reader.read("findById", () -> ApiFutures.immediateFuture("ok")));
+        assertEquals(1.0, meterRegistry.counter("firestore.read.circuit.rejected", "operation", "findById").count());
+    }
+
+    @Test
+    public void testHalfOpenPermitIsNotLostWhenTheCallThrows() throws Exception {
+        // Opens after four failures and goes half-open (one probe) on the next call
+        ResilientFirestoreReader reader = reader(1, Duration.ZERO);
+        for (int i = 0; i < 4; i++) {
+            assertThrows(ExecutionException.class, () -> reader.read("findById", ResilientFirestoreReaderTest::unavailable));
+        }
+
+        // A throwing probe counts as a failure and re-opens the circuit instead of keeping the permit
+        assertThrows(IllegalStateException.class, () -> reader.read("findById", () -> {
+            throw new IllegalStateException("channel shut down");
+        }));
+        // An interrupted probe hands its permit back
+        assertThrows(InterruptedException.class, () -> reader.read("findById", () -> {
+            Thread.currentThread().interrupt();
+            return SettableApiFuture.<String>create();
+        }));
+        assertFalse(Thread.interrupted());
+
+        assertEquals("ok", reader.read("findById", () -> ApiFutures.immediateFuture("ok")));
+        assertEquals("ok", reader.read("findById", () -> ApiFutures.immediateFuture("ok")));
+        assertEquals(0.0, meterRegistry.counter("firestore.read.circuit.rejected", "operation", "findById").count());
+    }
+
+    private static ApiFuture<String> unavailable() {
+        return ApiFutures.immediateFailedFuture(FirestoreException.forServerRejection(Status.UNAVAILABLE, "backend unavailable"));
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.api.scan;
+
+import com.example.api.repository.TaskRepositoryNoSQL;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+/**
+ * Builds a started {@link TaskScanEngine} with the given settings, for tests that need real
+ * scans over an in-memory repository.
+ */
+public final class TaskScanEngineFixture {
+
+    private TaskScanEngineFixture() {
+    }
+
+    public static TaskScanEngine engine(TaskRepositoryNoSQL repository, int parallelism, int partitionsPerThread, int pageSize) {
+        return engine(repository, parallelism, partitionsPerThread, pageSize, Duration.ofSeconds(30));
+    }
+
+    public static TaskScanEngine engine(TaskRepositoryNoSQL repository, int parallelism, int partitionsPerThread, int pageSize,
+                                        Duration consumerTimeout) {
+        TaskScanEngine engine = new TaskScanEngine();
+        ReflectionTestUtils.setField(engine, "taskRepository", repository);
+        ReflectionTestUtils.setField(engine, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(engine, "parallelism", parallelism);
+        ReflectionTestUtils.setField(engine, "partitionsPerThread", partitionsPerThread);
+        ReflectionTestUtils.setField(engine, "pageSize", pageSize);
+        ReflectionTestUtils.setField(engine, "bufferedPages", 2);
+        ReflectionTestUtils.setField(engine, "streamParallelism", 2);
+        ReflectionTestUtils.setField(engine, "consumerTimeout", consumerTimeout);
+        ReflectionTestUtils.invokeMethod(engine, "start");
+        return engine;
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.api.scan;
+
+import com.example.api.loadtest.InMemoryTaskRepository;
+import com.example.api.model.TaskNoSQL;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.api.scan.TaskScanEngineFixture.engine;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TaskScanEngineTest {
+
+    private static final int PARALLELISM = 8;
+
+    @Test
+    public void testParallelScanMatchesSequentialOrder() throws Exception {
+        InMemoryTaskRepository repository = repository(1_000);
+        TaskScanEngine engine = engine(repository, PARALLELISM, 2, 500);
+
+        List<String> sequential = new ArrayList<>();
+        repository.forEachPage(37, page -> page.forEach(task -> sequential.add(task.getId())));
+        List<String> streamed = new ArrayList<>();
+        engine.forEachPage(37, page -> page.forEach(task -> streamed.add(task.getId())));
+
+        assertEquals(sequential, streamed);
+        assertEquals(sequential, engine.findAll().stream().map(TaskNoSQL::getId).toList());
+        assertEquals(List.of(), engine(repository(0), PARALLELISM, 4, 500).findAll());
+    }
+
+    @Test
+    public void testConsumerFailureStopsTheScan() throws Exception {
+        TaskScanEngine engine = engine(repository(1_000), PARALLELISM, 1, 500);
+
+        assertThrows(IllegalStateException.class, () -> engine.forEachPage(10, page -> {
+            throw new IllegalStateException("consumer failed");
+        }));
+        // Workers were cancelled and released, so the pool still serves new scans
+        assertEquals(1_000, engine.findAll().size());
+    }
+
+    @Test
+    public void testSlowButSteadyConsumerOutlastsTheTimeout() throws Exception {
+        // Four partitions of 125 tasks; the later ones fill their queues while the consumer spends
+        // about 0.5 s on partition 0, longer than the timeout, but it keeps taking pages
+        InMemoryTaskRepository repository = repository(500);
+        TaskScanEngine engine = engine(repository, 2, 2, 500, Duration.ofMillis(200));
+
+        List<String> streamed = new ArrayList<>();
+        engine.streamPages(10, page -> {
+            page.forEach(task -> streamed.add(task.getId()));
+            try {
+                TimeUnit.MILLISECONDS.sleep(40);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        List<String> sequential = new ArrayList<>();
+        repository.forEachPage(10, page -> page.forEach(task -> sequential.add(task.getId())));
+        assertEquals(sequential, streamed);
+    }
+
+    @Test
+    public void testStalledExportGivesUpWithoutBlockingOtherScans() throws Exception {
+        TaskScanEngine engine = engine(repository(1_000), 2, 2, 500, Duration.ofMillis(200));
+        CountDownLatch clientReads = new CountDownLatch(1);
+        CompletableFuture<Void> export = CompletableFuture.runAsync(() -> {
+            try {
+                engine.streamPages(10, page -> {
+                    try {
+                        clientReads.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        });
+
+        // The stuck export holds stream threads only, so list scans keep running meanwhile
+        assertEquals(1_000, engine.findAll().size());
+        Thread.sleep(500);
+        clientReads.countDown();
+
+        ExecutionException failure = assertThrows(ExecutionException.class, () -> export.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(CancellationException.class, failure.getCause().getCause());
+        // Its workers timed out and were released, so the stream pool serves new exports
+        List<String> streamed = new ArrayList<>();
+        engine.streamPages(100, page -> page.forEach(task -> streamed.add(task.getId())));
+        assertEquals(1_000, streamed.size());
+    }
+
+    private static InMemoryTaskRepository repository(int tasks) throws Exception {
+        InMemoryTaskRepository repository = new InMemoryTaskRepository(0, 0, 0, 0);
+        for (int i = 0; i < tasks; i++) {
+            TaskNoSQL task = new TaskNoSQL("Task " + i, "Description " + i);
+            task.setId(String.format("task-%06d", i));
+            repository.save(task);
+        }
+        return repository;
+    }
+}
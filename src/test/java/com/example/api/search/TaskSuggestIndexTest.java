@@ -0,0 +1,151 @@
+package com.example.api.search;
+
+import com.example.api.loadtest.InMemoryTaskRepository;
+import com.example.api.model.TaskNoSQL;
+import com.example.api.model.TaskSuggestion;
+import com.example.api.scan.TaskScanEngine;
+import com.example.api.scan.TaskScanEngineFixture;
+import com.example.api.snapshot.TaskSnapshotService;
+import com.example.api.tenant.TenantContext;
+import com.google.cloud.Timestamp;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TaskSuggestIndexTest {
+
+    private TaskSuggestIndex index() {
+        TaskSuggestIndex index = new TaskSuggestIndex();
+        ReflectionTestUtils.setField(index, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(index, "defaultLimit", 10);
+        ReflectionTestUtils.setField(index, "maxLimit", 50);
+        ReflectionTestUtils.setField(index, "maxScan", 2000);
+        return index;
+    }
+
+    private static TaskNoSQL task(String id, String title, TaskNoSQL.TaskStatus status, long updatedAtSeconds) {
+        TaskNoSQL task = new TaskNoSQL(title, null);
+        task.setId(id);
+        task.setStatus(status);
+        task.setFirestoreUpdatedAt(Timestamp.ofTimeSecondsAndNanos(updatedAtSeconds, 0));
+        return task;
+    }
+
+    @Test
+    public void testRanksByStatusThenRecency() {
+        TaskSuggestIndex index = index();
+        index.put(task("1", "Write docs", TaskNoSQL.TaskStatus.COMPLETED, 300));
+        index.put(task("2", "write  DOCUMENTATION", TaskNoSQL.TaskStatus.PENDING, 100));
+        index.put(task("3", "Write docs for API", TaskNoSQL.TaskStatus.PENDING, 200));
+        index.put(task("4", "Workshop", TaskNoSQL.TaskStatus.IN_PROGRESS, 50));
+
+        List<TaskSuggestion> suggestions = index.suggest("WRITE do", null);
+
+        assertEquals(List.of("3", "2", "1"), suggestions.stream().map(TaskSuggestion::id).toList());
+        assertEquals("write  DOCUMENTATION", suggestions.get(1).title());
+        assertEquals(1, index.suggest("write", 1).size());
+    }
+
+    @Test
+    public void testRanksOnlyTheFirstMaxScanMatches() {
+        TaskSuggestIndex index = index();
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ReflectionTestUtils.setField(index, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(index, "maxScan", 2);
+        index.put(task("1", "Review A", TaskNoSQL.TaskStatus.CANCELLED, 100));
+        index.put(task("2", "Review B", TaskNoSQL.TaskStatus.COMPLETED, 100));
+        index.put(task("3", "Review C", TaskNoSQL.TaskStatus.IN_PROGRESS, 100));
+
+        assertEquals(List.of("2", "1"), index.suggest("review", null).stream().map(TaskSuggestion::id).toList());
+        assertEquals(1.0, meterRegistry.counter("tasks.suggest.truncated", "tenant", TenantContext.DEFAULT_TENANT).count());
+        assertEquals(List.of("3"), index.suggest("review c", null).stream().map(TaskSuggestion::id).toList());
+        assertEquals(1.0, meterRegistry.counter("tasks.suggest.truncated", "tenant", TenantContext.DEFAULT_TENANT).count());
+    }
+
+    @Test
+    public void testUpdatesAndRemovals() {
+        TaskSuggestIndex index = index();
+        index.put(task("1", "Deploy service", TaskNoSQL.TaskStatus.PENDING, 100));
+        index.put(task("1", "Release service", TaskNoSQL.TaskStatus.PENDING, 200));
+        // An older copy, e.g. from a scan racing a local write, must not win
+        index.put(task("1", "Deploy service", TaskNoSQL.TaskStatus.PENDING, 150));
+
+        assertTrue(index.suggest("deploy", null).isEmpty());
+        assertEquals("Release service", index.suggest("rel", null).get(0).title());
+        assertEquals(1, index.size());
+
+        index.remove("1");
+        assertTrue(index.suggest("rel", null).isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    public void testRefreshRereadsTheOverlapBeforeItsWatermark() throws Exception {
+        InMemoryTaskRepository repository = new InMemoryTaskRepository(0, 0, 0, 0);
+        TaskSuggestIndex index = seededIndex(repository, null);
+        // Another instance's clock ran ahead: the watermark is past a write that commits later
+        Object titles = ((Map<?, ?>) ReflectionTestUtils.getField(index, "tenants")).get(TenantContext.DEFAULT_TENANT);
+        ReflectionTestUtils.setField(titles, "watermark", Timestamp.ofTimeSecondsAndNanos(Timestamp.now().getSeconds() + 10, 0));
+        TaskNoSQL late = new TaskNoSQL("Late commit", null);
+        late.setId("late");
+        repository.save(late);
+
+        index.refresh();
+        index.refresh();
+
+        assertEquals(List.of("late"), index.suggest("late", null).stream().map(TaskSuggestion::id).toList());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void testFallsBackToScanWhenTheReplicaFails() throws Exception {
+        InMemoryTaskRepository repository = new InMemoryTaskRepository(0, 0, 0, 0);
+        TaskNoSQL task = new TaskNoSQL("Plan release", null);
+        task.setId("1");
+        repository.save(task);
+        TaskSnapshotService snapshot = mock(TaskSnapshotService.class);
+        when(snapshot.isLoaded()).thenReturn(false);
+        when(snapshot.hasFailed()).thenReturn(true);
+
+        TaskSuggestIndex index = seededIndex(repository, snapshot);
+
+        assertEquals("Plan release", index.suggest("plan", null).get(0).title());
+    }
+
+    /**
+     * Starts the index like the application does and waits for the default tenant to be seeded.
+     */
+    private TaskSuggestIndex seededIndex(InMemoryTaskRepository repository, TaskSnapshotService snapshot) throws Exception {
+        TaskScanEngine scanEngine = TaskScanEngineFixture.engine(repository, 1, 1, 100);
+        @SuppressWarnings("unchecked")
+        ObjectProvider<TaskSnapshotService> snapshotService = mock(ObjectProvider.class);
+        when(snapshotService.getIfAvailable()).thenReturn(snapshot);
+
+        TaskSuggestIndex index = index();
+        ReflectionTestUtils.setField(index, "taskRepository", repository);
+        ReflectionTestUtils.setField(index, "scanEngine", scanEngine);
+        ReflectionTestUtils.setField(index, "snapshotService", snapshotService);
+        ReflectionTestUtils.setField(index, "pageSize", 100);
+        ReflectionTestUtils.setField(index, "refreshOverlap", Duration.ofSeconds(60));
+        ReflectionTestUtils.setField(index, "replicaWait", Duration.ofMinutes(1));
+        index.seedOnStartup();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!index.isSeeded() && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        assertTrue(index.isSeeded());
+        return index;
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.api.service;
+
+import com.example.api.config.TaskNoSQLSerializer;
+import com.example.api.loadtest.InMemoryTaskRepository;
+import com.example.api.model.TaskNoSQL;
+import com.example.api.model.TaskSuggestion;
+import com.example.api.repository.TaskBulkWriter;
+import com.example.api.repository.TaskRepositoryNoSQL;
+import com.example.api.scan.TaskScanEngine;
+import com.example.api.scan.TaskScanEngineFixture;
+import com.example.api.search.TaskSuggestIndex;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TaskBulkServiceTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .modulesToInstall(new SimpleModule().addSerializer(new TaskNoSQLSerializer()))
+            .build();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final TaskSuggestIndex suggestIndex = new TaskSuggestIndex();
+
+    private TaskBulkService service(TaskRepositoryNoSQL repository) {
+        ReflectionTestUtils.setField(suggestIndex, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(suggestIndex, "defaultLimit", 10);
+        ReflectionTestUtils.setField(suggestIndex, "maxLimit", 50);
+        ReflectionTestUtils.setField(suggestIndex, "maxScan", 2000);
+
+        TaskScanEngine scanEngine = TaskScanEngineFixture.engine(repository, 4, 2, 500);
+
+        TaskBulkService service = new TaskBulkService();
+        ReflectionTestUtils.setField(service, "taskRepository", repository);
+        ReflectionTestUtils.setField(service, "suggestIndex", suggestIndex);
+        ReflectionTestUtils.setField(service, "scanEngine", scanEngine);
+        ReflectionTestUtils.setField(service, "objectMapper", objectMapper);
+        ReflectionTestUtils.setField(service, "validator", Validation.buildDefaultValidatorFactory().getValidator());
+        ReflectionTestUtils.setField(service, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(service, "maxInFlight", 10);
+        ReflectionTestUtils.setField(service, "exportPageSize", 100);
+        ReflectionTestUtils.setField(service, "progressInterval", 10_000L);
+        ReflectionTestUtils.setField(service, "maxReportedErrors", 100);
+        ReflectionTestUtils.setField(service, "maxLineLength", 200);
+        return service;
+    }
+
+    private static ByteArrayInputStream ndjson(String... lines) {
+        return new ByteArrayInputStream(String.join("\n", lines).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testCountsInvalidAndFailedRecords() throws Exception {
+        // Writes of ids starting with "fail" are rejected by the backend
+        List<String> written = new ArrayList<>();
+        TaskRepositoryNoSQL repository = mock(TaskRepositoryNoSQL.class);
+        when(repository.bulkWriter(anyInt(), any())).thenAnswer(invocation -> {
+            Consumer<TaskNoSQL> onWritten = invocation.getArgument(1);
+            return new TaskBulkWriter() {
+                private long succeeded;
+                private long failed;
+
+                @Override
+                public void write(TaskNoSQL task) {
+                    if (task.getId() != null && task.getId().startsWith("fail")) {
+                        failed++;
+                        return;
+                    }
+                    succeeded++;
+                    written.add(task.getId());
+                    onWritten.accept(task);
+                }
+
+                @Override
+                public long getSucceededCount() {
+                    return succeeded;
+                }
+
+                @Override
+                public long getFailedCount() {
+                    return failed;
+                }
+
+                @Override
+                public void close() {
+                }
+            };
+        });
+
+        Map<String, Object> summary = service(repository).importTasks(ndjson(
+                "{\"id\":\"a\",\"title\":\"Alpha\"}\r",
+                "   ",
+                "{\"title\":",
+                "{\"description\":\"no title\"}",
+                "{\"id\":\"fail-1\",\"title\":\"Doomed\"}",
+                "{\"title\":\"" + "x".repeat(10_000) + "\"}",
+                // Exactly the limit once the CRLF line ending is dropped
+                "{\"id\":\"b\",\"title\":\"" + "x".repeat(179) + "\"}\r"));
+
+        assertEquals(6L, summary.get("received"));
+        assertEquals(2L, summary.get("imported"));
+        assertEquals(3L, summary.get("invalid"));
+        assertEquals(1L, summary.get("failed"));
+        assertEquals(List.of("a", "b"), written);
+        List<?> errors = (List<?>) summary.get("errors");
+        assertEquals(3, errors.size());
+        assertTrue(errors.get(0).toString().startsWith("line 3: malformed JSON"));
+        assertEquals("line 4: Title is required", errors.get(1));
+        assertEquals("line 6: line longer than 200 characters", errors.get(2));
+    }
+
+    @Test
+    public void testImportReplacesSuggestEntriesOfOverwrittenTasks() throws Exception {
+        InMemoryTaskRepository repository = new InMemoryTaskRepository(0, 0, 0, 0);
+        TaskBulkService service = service(repository);
+        TaskNoSQL existing = new TaskNoSQL("Deploy service", null);
+        existing.setId("t1");
+        suggestIndex.put(repository.save(existing));
+
+        service.importTasks(ndjson("{\"id\":\"t1\",\"title\":\"Release service\"}"));
+
+        assertTrue(suggestIndex.suggest("deploy", null).isEmpty());
+        assertEquals(List.of("t1"), suggestIndex.suggest("release", null).stream().map(TaskSuggestion::id).toList());
+        assertEquals("Release service", repository.findById("t1").orElseThrow().getTitle());
+    }
+
+    @Test
+    public void testExportStreamsOnePageAtATime() throws Exception {
+        InMemoryTaskRepository repository = new InMemoryTaskRepository(0, 0, 0, 0);
+        for (int i = 0; i < 250; i++) {
+            TaskNoSQL task = new TaskNoSQL("Task " + i, null);
+            task.setId(String.format("task-%03d", i));
+            repository.save(task);
+        }
+        List<Integer> flushedAt = new ArrayList<>();
+        ByteArrayOutputStream output = new ByteArrayOutputStream() {
+            @Override
+            public void flush() {
+                flushedAt.add(size());
+            }
+        };
+
+        service(repository).exportTasks(output);
+
+        String[] lines = output.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(250, lines.length);
+        assertEquals("task-000", objectMapper.readValue(lines[0], TaskNoSQL.class).getId());
+        assertEquals("Task 249", objectMapper.readValue(lines[249], TaskNoSQL.class).getTitle());
+        // Flushed after every page (at most 100 tasks, shorter at partition ends), so the client
+        // sees data before the scan ends
+        assertTrue(flushedAt.size() >= 3);
+        assertTrue(flushedAt.get(0) > 0 && flushedAt.get(0) < output.size());
+    }
+}
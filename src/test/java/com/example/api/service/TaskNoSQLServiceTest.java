@@ -0,0 +1,73 @@
+package com.example.api.service;
+
+import com.example.api.loadtest.InMemoryTaskRepository;
+import com.example.api.model.TaskList;
+import com.example.api.model.TaskNoSQL;
+import com.example.api.scan.TaskScanEngineFixture;
+import com.google.cloud.Timestamp;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class TaskNoSQLServiceTest {
+
+    private final InMemoryTaskRepository repository = new InMemoryTaskRepository(0, 0, 0, 0);
+
+    private TaskNoSQLService service() {
+        TaskNoSQLService service = new TaskNoSQLService();
+        ReflectionTestUtils.setField(service, "taskRepository", repository);
+        ReflectionTestUtils.setField(service, "scanEngine", TaskScanEngineFixture.engine(repository, 1, 1, 100));
+        ReflectionTestUtils.setField(service, "maxArchivedRead", 2);
+        return service;
+    }
+
+    private void archive(String... titles) throws Exception {
+        for (int i = 0; i < titles.length; i++) {
+            TaskNoSQL task = new TaskNoSQL(titles[i], null);
+            task.setId("archived-" + i);
+            task.setStatus(TaskNoSQL.TaskStatus.COMPLETED);
+            repository.save(task);
+        }
+        repository.archive(Set.of(TaskNoSQL.TaskStatus.COMPLETED), Timestamp.ofTimeSecondsAndNanos(Timestamp.now().getSeconds() + 60, 0), 100);
+    }
+
+    @Test
+    public void testArchivedSearchPagesThroughTheWholeArchive() throws Exception {
+        archive("Release notes", "Budget", "Team offsite", "Release party", "Hiring plan");
+        TaskNoSQL open = new TaskNoSQL("Release checklist", null);
+        open.setId("open-1");
+        repository.save(open);
+        TaskNoSQLService service = service();
+
+        List<String> found = new ArrayList<>();
+        List<String> cursors = new ArrayList<>();
+        TaskList page = service.searchTasks("release", true, null);
+        page.tasks().forEach(task -> found.add(task.getId()));
+        while (page.nextArchiveCursor() != null) {
+            cursors.add(page.nextArchiveCursor());
+            page = service.searchTasks("release", true, page.nextArchiveCursor());
+            page.tasks().forEach(task -> found.add(task.getId()));
+        }
+
+        // The matching task after the first page of two is still found, and the working set is returned once
+        assertEquals(List.of("open-1", "archived-0", "archived-3"), found);
+        assertEquals(List.of("archived-1", "archived-3"), cursors);
+    }
+
+    @Test
+    public void testNoCursorWithoutArchiveOrOnTheLastPage() throws Exception {
+        archive("Done");
+        TaskNoSQLService service = service();
+
+        assertNull(service.getAllTasks(false, null).nextArchiveCursor());
+        TaskList all = service.getAllTasks(true, null);
+        assertEquals(List.of("archived-0"), all.tasks().stream().map(TaskNoSQL::getId).toList());
+        assertNull(all.nextArchiveCursor());
+    }
+}
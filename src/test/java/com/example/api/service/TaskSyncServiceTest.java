@@ -0,0 +1,146 @@
+package com.example.api.service;
+
+import com.example.api.model.TaskNoSQL;
+import com.example.api.model.TaskTombstone;
+import com.example.api.repository.TaskRepositoryNoSQL;
+import com.google.cloud.Timestamp;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TaskSyncServiceTest {
+
+    private final TaskRepositoryNoSQL repository = mock(TaskRepositoryNoSQL.class);
+
+    private TaskSyncService service() {
+        TaskSyncService service = new TaskSyncService();
+        ReflectionTestUtils.setField(service, "taskRepository", repository);
+        ReflectionTestUtils.setField(service, "defaultLimit", 3);
+        ReflectionTestUtils.setField(service, "maxLimit", 10);
+        ReflectionTestUtils.setField(service, "settleWindow", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(service, "tombstoneRetention", Duration.ofDays(30));
+        return service;
+    }
+
+    private static Timestamp ago(long seconds) {
+        return Timestamp.ofTimeSecondsAndNanos(Timestamp.now().getSeconds() - seconds, 0);
+    }
+
+    private static TaskNoSQL task(String id, Timestamp updatedAt) {
+        TaskNoSQL task = new TaskNoSQL("Task " + id, null);
+        task.setId(id);
+        task.setFirestoreUpdatedAt(updatedAt);
+        return task;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> ids(Map<String, Object> changes) {
+        List<String> ids = new ArrayList<>();
+        ((Collection<TaskNoSQL>) changes.get("tasks")).forEach(task -> ids.add(task.getId()));
+        return ids;
+    }
+
+    @Test
+    public void testMergesUpdatesAndTombstonesInOrder() throws Exception {
+        Timestamp t1 = ago(60);
+        Timestamp t2 = ago(50);
+        Timestamp t3 = ago(40);
+        when(repository.findUpdatedAfter(eq(Timestamp.MIN_VALUE), isNull(), eq(3)))
+                .thenReturn(List.of(task("a", t1), task("b", t3)));
+        when(repository.findDeletedAfter(eq(Timestamp.MIN_VALUE), isNull(), eq(3)))
+                .thenReturn(List.of(new TaskTombstone("a", t2), new TaskTombstone("c", t3)));
+
+        Map<String, Object> first = service().getChanges(null, null);
+
+        // "a" was updated and then deleted; the page ends after three changes, before "c"
+        assertEquals(List.of("b"), ids(first));
+        assertEquals(List.of("a"), List.copyOf((Collection<?>) first.get("deleted")));
+        assertEquals(true, first.get("hasMore"));
+
+        when(repository.findUpdatedAfter(eq(t3), eq("b"), anyInt())).thenReturn(List.of());
+        when(repository.findDeletedAfter(eq(t3), eq("b"), anyInt())).thenReturn(List.of(new TaskTombstone("c", t3)));
+
+        Map<String, Object> second = service().getChanges((String) first.get("token"), null);
+
+        assertEquals(List.of(), ids(second));
+        assertEquals(List.of("c"), List.copyOf((Collection<?>) second.get("deleted")));
+        assertEquals(false, second.get("hasMore"));
+    }
+
+    @Test
+    public void testHoldsBackChangesInsideSettleWindow() throws Exception {
+        Timestamp settled = ago(60);
+        when(repository.findUpdatedAfter(any(), any(), anyInt()))
+                .thenReturn(List.of(task("a", settled), task("b", Timestamp.now())));
+        when(repository.findDeletedAfter(any(), any(), anyInt())).thenReturn(List.of());
+
+        Map<String, Object> changes = service().getChanges(null, 10);
+
+        assertEquals(List.of("a"), ids(changes));
+        assertEquals(false, changes.get("hasMore"));
+        TaskSyncService.ChangeToken token = TaskSyncService.ChangeToken.decode((String) changes.get("token"));
+        assertEquals(settled, token.position());
+        assertEquals("a", token.id());
+    }
+
+    @Test
+    public void testTokenOnlyCountsAsSyncedUpToThePagesItReturned() throws Exception {
+        Timestamp old = ago(29L * 24 * 3600);
+        when(repository.findUpdatedAfter(any(), any(), anyInt()))
+                .thenReturn(List.of(task("a", old), task("b", old), task("c", old)));
+        when(repository.findDeletedAfter(any(), any(), anyInt())).thenReturn(List.of());
+        String since = new TaskSyncService.ChangeToken(ago(30L * 24 * 3600 - 60), null, ago(30L * 24 * 3600 - 60).getSeconds()).encode();
+
+        Map<String, Object> partial = service().getChanges(since, null);
+
+        // The client stopping here has seen 29 days back, not up to now
+        assertEquals(true, partial.get("hasMore"));
+        assertEquals(old.getSeconds(), TaskSyncService.ChangeToken.decode((String) partial.get("token")).syncedThrough());
+
+        when(repository.findUpdatedAfter(any(), any(), anyInt())).thenReturn(List.of());
+
+        Map<String, Object> caughtUp = service().getChanges((String) partial.get("token"), null);
+
+        assertEquals(false, caughtUp.get("hasMore"));
+        long syncedThrough = TaskSyncService.ChangeToken.decode((String) caughtUp.get("token")).syncedThrough();
+        assertTrue(syncedThrough >= ago(10).getSeconds() && syncedThrough <= ago(5).getSeconds());
+    }
+
+    @Test
+    public void testFullSyncIsNotExpiredByOldTasks() throws Exception {
+        Timestamp old = ago(365L * 24 * 3600);
+        when(repository.findUpdatedAfter(any(), any(), anyInt()))
+                .thenReturn(List.of(task("a", old), task("b", old), task("c", old)));
+        when(repository.findDeletedAfter(any(), any(), anyInt())).thenReturn(List.of());
+
+        Map<String, Object> first = service().getChanges(null, null);
+        Map<String, Object> second = service().getChanges((String) first.get("token"), null);
+
+        assertEquals(true, second.get("hasMore"));
+    }
+
+    @Test
+    public void testRejectsMalformedAndExpiredTokens() {
+        TaskSyncService service = service();
+        assertThrows(IllegalArgumentException.class, () -> service.getChanges("not a token", null));
+        assertThrows(IllegalArgumentException.class, () -> service.getChanges(null, 11));
+
+        String expired = new TaskSyncService.ChangeToken(ago(40L * 24 * 3600), "a", ago(31L * 24 * 3600).getSeconds()).encode();
+        assertThrows(SyncTokenExpiredException.class, () -> service.getChanges(expired, null));
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.api.snapshot;
+
+import com.example.api.model.TaskNoSQL;
+import com.google.cloud.Timestamp;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TaskSnapshotFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        TaskNoSQL full = new TaskNoSQL("Write snapshot", "Unicode é ✓");
+        full.setId("task-1");
+        full.setAssignee("alice");
+        full.setStatus(TaskNoSQL.TaskStatus.IN_PROGRESS);
+        full.setFirestoreCreatedAt(Timestamp.ofTimeSecondsAndNanos(1_700_000_000L, 1));
+        full.setFirestoreDueDate(Timestamp.ofTimeSecondsAndNanos(1_700_100_000L, 3));
+        full.setFirestoreUpdatedAt(Timestamp.ofTimeSecondsAndNanos(1_700_000_500L, 2));
+
+        TaskNoSQL sparse = new TaskNoSQL();
+        sparse.setId("task-2");
+        sparse.setStatus(null);
+        sparse.setFirestoreUpdatedAt(null);
+
+        Path file = directory.resolve("tasks.snapshot");
+        Timestamp watermark = Timestamp.ofTimeSecondsAndNanos(1_700_000_500L, 2);
+        TaskSnapshotFile.write(file, watermark, List.of(full, sparse));
+
+        TaskSnapshotFile.Snapshot snapshot = TaskSnapshotFile.read(file);
+        assertEquals(watermark, snapshot.watermark());
+        assertEquals(2, snapshot.tasks().size());
+
+        TaskNoSQL read = snapshot.tasks().get(0);
+        assertEquals(full.toString(), read.toString());
+        assertEquals(full.getFirestoreUpdatedAt(), read.getFirestoreUpdatedAt());
+
+        TaskNoSQL readSparse = snapshot.tasks().get(1);
+        assertEquals("task-2", readSparse.getId());
+        assertNull(readSparse.getTitle());
+        assertNull(readSparse.getStatus());
+        assertNull(readSparse.getFirestoreCreatedAt());
+        assertNull(readSparse.getFirestoreUpdatedAt());
+    }
+
+    @Test
+    public void testCorruptOrTruncatedFilesFailWithIOException() throws Exception {
+        TaskNoSQL task = new TaskNoSQL("Corrupt me", null);
+        task.setId("task-1");
+        Path file = directory.resolve("tasks.snapshot");
+        TaskSnapshotFile.write(file, Timestamp.now(), List.of(task));
+        byte[] valid = Files.readAllBytes(file);
+        // Header: magic (4), version (2), watermark (8 + 4), count (4); then the id's length
+        int idLength = 4 + 2 + 8 + 4 + 4;
+
+        byte[] hugeString = valid.clone();
+        ByteBuffer.wrap(hugeString).putInt(idLength, Integer.MAX_VALUE);
+        Files.write(file, hugeString);
+        assertThrows(IOException.class, () -> TaskSnapshotFile.read(file));
+
+        byte[] negativeString = valid.clone();
+        ByteBuffer.wrap(negativeString).putInt(idLength, -7);
+        Files.write(file, negativeString);
+        assertThrows(IOException.class, () -> TaskSnapshotFile.read(file));
+
+        // Then the id and title, the null description and assignee, and the status byte
+        int status = idLength + 4 + "task-1".length() + 4 + "Corrupt me".length() + 4 + 4;
+        for (byte unknown : new byte[] {-5, Byte.MIN_VALUE, (byte) TaskNoSQL.TaskStatus.values().length}) {
+            byte[] unknownStatus = valid.clone();
+            unknownStatus[status] = unknown;
+            Files.write(file, unknownStatus);
+            assertThrows(IOException.class, () -> TaskSnapshotFile.read(file));
+        }
+
+        byte[] hugeCount = valid.clone();
+        ByteBuffer.wrap(hugeCount).putInt(idLength - 4, Integer.MAX_VALUE);
+        Files.write(file, hugeCount);
+        assertThrows(IOException.class, () -> TaskSnapshotFile.read(file));
+
+        Files.write(file, Arrays.copyOf(valid, valid.length - 5));
+        assertThrows(IOException.class, () -> TaskSnapshotFile.read(file));
+    }
+}
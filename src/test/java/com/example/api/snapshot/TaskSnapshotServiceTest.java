@@ -0,0 +1,76 @@
+package com.example.api.snapshot;
+
+import com.example.api.loadtest.InMemoryTaskRepository;
+import com.example.api.model.TaskNoSQL;
+import com.example.api.repository.TaskCache;
+import com.example.api.scan.TaskScanEngine;
+import com.example.api.scan.TaskScanEngineFixture;
+import com.google.cloud.Timestamp;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class TaskSnapshotServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private final InMemoryTaskRepository repository = new InMemoryTaskRepository(0, 0, 0, 0);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private TaskSnapshotService service(Path file) {
+        TaskScanEngine scanEngine = TaskScanEngineFixture.engine(repository, 1, 1, 100);
+
+        TaskSnapshotService service = new TaskSnapshotService();
+        ReflectionTestUtils.setField(service, "taskRepository", repository);
+        ReflectionTestUtils.setField(service, "taskCache", new TaskCache(100, meterRegistry));
+        ReflectionTestUtils.setField(service, "scanEngine", scanEngine);
+        ReflectionTestUtils.setField(service, "meterRegistry", meterRegistry);
+        ReflectionTestUtils.setField(service, "eventPublisher", (ApplicationEventPublisher) event -> { });
+        ReflectionTestUtils.setField(service, "path", file);
+        ReflectionTestUtils.setField(service, "pageSize", 100);
+        ReflectionTestUtils.setField(service, "reconcileOverlap", Duration.ofSeconds(60));
+        ReflectionTestUtils.setField(service, "tombstoneRetention", Duration.ofDays(30));
+        return service;
+    }
+
+    private static TaskNoSQL task(String id) {
+        TaskNoSQL task = new TaskNoSQL("Task " + id, null);
+        task.setId(id);
+        return task;
+    }
+
+    @Test
+    public void testSnapshotOlderThanTombstoneRetentionIsReplacedByFullScan() throws Exception {
+        repository.save(task("kept"));
+        // "gone" was deleted long ago; its tombstone has expired, so only a full scan can drop it
+        Path file = directory.resolve("tasks.snapshot");
+        Timestamp expired = Timestamp.ofTimeSecondsAndNanos(Timestamp.now().getSeconds() - Duration.ofDays(31).getSeconds(), 0);
+        TaskSnapshotFile.write(file, expired, List.of(task("kept"), task("gone")));
+
+        TaskSnapshotService service = service(file);
+        service.load();
+
+        assertEquals(List.of("kept"), service.getTasks().stream().map(TaskNoSQL::getId).toList());
+        assertEquals(1.0, meterRegistry.counter("tasks.snapshot.discarded", "reason", "expired").count());
+    }
+
+    @Test
+    public void testRecentSnapshotIsLoaded() throws Exception {
+        Path file = directory.resolve("tasks.snapshot");
+        TaskSnapshotFile.write(file, Timestamp.now(), List.of(task("from-file")));
+
+        TaskSnapshotService service = service(file);
+        service.load();
+
+        assertEquals(List.of("from-file"), service.getTasks().stream().map(TaskNoSQL::getId).toList());
+    }
+}
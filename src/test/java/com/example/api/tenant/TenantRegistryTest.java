@@ -0,0 +1,62 @@
+package com.example.api.tenant;
+
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.Firestore;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class TenantRegistryTest {
+
+    private final Firestore firestore = mock(Firestore.class);
+
+    private TenantRegistry registry(List<String> allowed, String... collections) {
+        List<CollectionReference> references = new ArrayList<>();
+        for (String name : collections) {
+            CollectionReference collection = mock(CollectionReference.class);
+            when(collection.getId()).thenReturn(name);
+            references.add(collection);
+        }
+        when(firestore.listCollections()).thenReturn(references);
+
+        TenantRegistry registry = new TenantRegistry();
+        ReflectionTestUtils.setField(registry, "firestore", firestore);
+        ReflectionTestUtils.setField(registry, "allowed", allowed);
+        ReflectionTestUtils.setField(registry, "refreshInterval", Duration.ofMinutes(1));
+        return registry;
+    }
+
+    @Test
+    public void testKnowsConfiguredAndExistingTenantsOnly() {
+        TenantRegistry registry = registry(List.of("acme"), "tasks", "tenant_globex_tasks", "tenant_initech_tasks_archive");
+
+        assertTrue(registry.isKnown(TenantContext.DEFAULT_TENANT));
+        assertTrue(registry.isKnown("acme"));
+        assertTrue(registry.isKnown("globex"));
+        assertFalse(registry.isKnown("initech"));
+        assertFalse(registry.isKnown("../other"));
+    }
+
+    @Test
+    public void testUnknownIdsListCollectionsAtMostOncePerInterval() {
+        TenantRegistry registry = registry(List.of());
+
+        for (int i = 0; i < 100; i++) {
+            assertFalse(registry.isKnown("made-up-" + i));
+        }
+        verify(firestore, times(1)).listCollections();
+
+        registry.register("made-up-7");
+        assertTrue(registry.isKnown("made-up-7"));
+    }
+}
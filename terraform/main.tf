@@ -75,6 +75,37 @@ resource "google_firestore_database" "database" {
 }
 */
 
+# Delete task tombstones (written by DELETE /api/tasks/{id} for delta sync) once they expire
+resource "google_firestore_field" "task_tombstone_ttl" {
+  project    = var.project_id
+  database   = "(default)"
+  collection = "tasks_tombstones"
+  field      = "expireAt"
+
+  ttl_config {}
+
+  depends_on = [google_project_service.required_apis]
+}
+
+# Lets the archiver find old tasks in a terminal status without scanning the collection
+resource "google_firestore_index" "task_archive_candidates" {
+  project    = var.project_id
+  database   = "(default)"
+  collection = "tasks"
+
+  fields {
+    field_path = "status"
+    order      = "ASCENDING"
+  }
+
+  fields {
+    field_path = "firestoreUpdatedAt"
+    order      = "ASCENDING"
+  }
+
+  depends_on = [google_project_service.required_apis]
+}
+
 # Use existing Firestore database (manual reference)
 # The existing database will be used by the application via environment variables
 
@@ -105,6 +136,23 @@ resource "google_cloud_run_v2_service" "api_service" {
         }
       }
       
+      # Only route traffic once the startup warm-up has finished
+      startup_probe {
+        http_get {
+          path = "/ready"
+        }
+        period_seconds    = 2
+        timeout_seconds   = 1
+        failure_threshold = 60
+      }
+      
+      liveness_probe {
+        http_get {
+          path = "/live"
+        }
+        period_seconds = 30
+      }
+      
       # Environment variables for Firestore connection
       env {
         name  = "GCP_PROJECT_ID"